@@ -0,0 +1,77 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.EstoquerefrigeranteSpringApplication;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.repository.SodaRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Boots the application against the in-memory H2 database for benchmarks and seeds it with sodas.
+ */
+public final class BenchmarkApplication {
+
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    private static final SodaType[] SODA_TYPES = SodaType.values();
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(EstoquerefrigeranteSpringApplication.class)
+                .web(webApplicationType)
+                .properties("logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Properties selecting the storage mode: {@code memory} is the default in-memory H2, {@code persistent} the
+     * file-backed profile stored under {@code dataDir}.
+     */
+    public static String[] storage(String mode, Path dataDir) {
+        if ("persistent".equals(mode)) {
+            return new String[]{"spring.profiles.active=persistent", "soda.data-dir=" + dataDir.toAbsolutePath()};
+        }
+        return new String[0];
+    }
+
+    public static List<Long> seed(ConfigurableApplicationContext context, int catalogSize) {
+        SodaRepository sodaRepository = context.getBean(SodaRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        List<Long> ids = new ArrayList<>(catalogSize);
+        for (int from = 0; from < catalogSize; from += SEED_CHUNK_SIZE) {
+            List<Soda> chunk = IntStream.range(from, Math.min(from + SEED_CHUNK_SIZE, catalogSize))
+                    .mapToObj(BenchmarkApplication::soda)
+                    .collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> sodaRepository.saveAll(chunk)
+                    .forEach(savedSoda -> ids.add(savedSoda.getId())));
+        }
+        return ids;
+    }
+
+    public static Soda soda(int index) {
+        Soda soda = new Soda();
+        soda.setName("Soda " + index);
+        soda.setBrand("Brand " + (index % 50));
+        soda.setMax(500);
+        soda.setQuantity(250);
+        soda.setType(SODA_TYPES[index % SODA_TYPES.length]);
+        return soda;
+    }
+}
@@ -0,0 +1,67 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/v1/sodas over HTTP with an unchanged catalog, serialized per request or served from the pre-serialized
+ * catalog cache, for clients with and without gzip support.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(16)
+public class CatalogEndpointBenchmark {
+
+    @Param({"false", "true"})
+    public boolean catalogCache;
+
+    @Param({"identity", "gzip"})
+    public String acceptEncoding;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private HttpRequest listRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "server.port=0",
+                "soda.catalog-cache.enabled=" + catalogCache);
+        BenchmarkApplication.seed(context, catalogSize);
+        listRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/sodas"))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", acceptEncoding)
+                .GET()
+                .build();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] listSodas() throws IOException, InterruptedException {
+        return httpClient.send(listRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+}
@@ -0,0 +1,45 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SodaService.listAll at growing catalog sizes, to track how the full materialization scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ListAllBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+
+    private SodaService sodaService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        sodaService = context.getBean(SodaService.class);
+        BenchmarkApplication.seed(context, catalogSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SodaDTO> listAll() {
+        return sodaService.listAll();
+    }
+}
@@ -0,0 +1,66 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.store.PrimitiveSodaStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock mutations and name lookups on the kiosk store. Run with {@code -prof gc} to confirm that increments,
+ * decrements and lookups allocate nothing ({@code gc.alloc.rate.norm} of 0 bytes per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitiveSodaStoreBenchmark {
+
+    private static final int CATALOG_SIZE = 4_096;
+
+    private PrimitiveSodaStore sodaStore;
+
+    private String[] names;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (CATALOG_SIZE - 1);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sodaStore = new PrimitiveSodaStore(CATALOG_SIZE);
+        names = new String[CATALOG_SIZE];
+        SodaType[] sodaTypes = SodaType.values();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            names[i] = "Soda " + i;
+            sodaStore.create(names[i], "Brand " + (i % 50), 500, 250, sodaTypes[i % sodaTypes.length]);
+        }
+    }
+
+    @Benchmark
+    public int incrementAndDecrement(Cursor cursor) {
+        long id = cursor.next() + 1;
+        sodaStore.add(id, 1);
+        return sodaStore.add(id, -1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int hotSkuIncrementAndDecrement() {
+        sodaStore.add(1, 1);
+        return sodaStore.add(1, -1);
+    }
+
+    @Benchmark
+    public long idOf(Cursor cursor) {
+        return sodaStore.idOf(names[cursor.next()]);
+    }
+}
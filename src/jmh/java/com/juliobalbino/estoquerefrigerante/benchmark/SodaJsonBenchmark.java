@@ -0,0 +1,51 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson serialization of SodaDTO lists, the payload of GET /api/v1/sodas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SodaJsonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int listSize;
+
+    private ObjectWriter sodaListWriter;
+
+    private List<SodaDTO> sodas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        sodaListWriter = objectMapper.writerFor(TypeFactory.defaultInstance().constructCollectionType(List.class, SodaDTO.class));
+        sodas = IntStream.range(0, listSize)
+                .mapToObj(index -> {
+                    SodaDTO sodaDTO = SodaMapper.INSTANCE.toDTO(BenchmarkApplication.soda(index));
+                    sodaDTO.setId((long) index);
+                    return sodaDTO;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return sodaListWriter.writeValueAsBytes(sodas);
+    }
+}
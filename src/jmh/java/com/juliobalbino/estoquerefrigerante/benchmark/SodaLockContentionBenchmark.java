@@ -0,0 +1,67 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaLockManager;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaLockManager.SodaLocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the striped soda locks: 16 threads mutate ids drawn from a hot set of {@code hotIds} sodas while
+ * holding the lock for a short critical section. Compare a single stripe (one global lock) against wider
+ * stripings, and single-id mutations against ten-id bulk adjustments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class SodaLockContentionBenchmark {
+
+    private static final int CRITICAL_SECTION_TOKENS = 200;
+
+    private static final int BULK_SIZE = 10;
+
+    @Param({"1", "64", "1024"})
+    public int stripes;
+
+    @Param({"1", "100", "100000"})
+    public int hotIds;
+
+    private SodaLockManager sodaLockManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sodaLockManager = new SodaLockManager(new SimpleMeterRegistry(), stripes, Duration.ofMinutes(1));
+    }
+
+    @Benchmark
+    public void singleId() {
+        try (SodaLocks locks = sodaLockManager.lock(randomId())) {
+            Blackhole.consumeCPU(CRITICAL_SECTION_TOKENS);
+        }
+    }
+
+    @Benchmark
+    public void bulkAdjustment() {
+        List<Long> ids = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            ids.add(randomId());
+        }
+        try (SodaLocks locks = sodaLockManager.lock(ids)) {
+            Blackhole.consumeCPU(CRITICAL_SECTION_TOKENS * BULK_SIZE);
+        }
+    }
+
+    private Long randomId() {
+        return (long) ThreadLocalRandom.current().nextInt(hotIds);
+    }
+}
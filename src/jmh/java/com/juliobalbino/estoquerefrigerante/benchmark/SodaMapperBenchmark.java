@@ -0,0 +1,43 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the MapStruct generated SodaMapper in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SodaMapperBenchmark {
+
+    private final SodaMapper sodaMapper = SodaMapper.INSTANCE;
+
+    private Soda soda;
+
+    private SodaDTO sodaDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        soda = BenchmarkApplication.soda(42);
+        soda.setId(42L);
+        sodaDTO = sodaMapper.toDTO(soda);
+    }
+
+    @Benchmark
+    public SodaDTO toDTO() {
+        return sodaMapper.toDTO(soda);
+    }
+
+    @Benchmark
+    public Soda toModel() {
+        return sodaMapper.toModel(sodaDTO);
+    }
+}
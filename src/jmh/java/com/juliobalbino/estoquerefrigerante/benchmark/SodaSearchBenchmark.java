@@ -0,0 +1,78 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a first search page (content plus count query) over a seeded catalog, for a selective name prefix, an
+ * equality filter on brand and type, and a type filter combined with a quantity range.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SodaSearchBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+
+    private SodaService sodaService;
+
+    private final SodaSearchCriteriaDTO byNamePrefix = SodaSearchCriteriaDTO.builder()
+            .namePrefix("Soda 4242")
+            .build();
+
+    private final SodaSearchCriteriaDTO byBrandAndType = SodaSearchCriteriaDTO.builder()
+            .brand("Brand 7")
+            .type(SodaType.UVA)
+            .build();
+
+    private final SodaSearchCriteriaDTO byTypeAndQuantity = SodaSearchCriteriaDTO.builder()
+            .type(SodaType.LIMAO)
+            .minQuantity(200)
+            .maxQuantity(300)
+            .build();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        sodaService = context.getBean(SodaService.class);
+        BenchmarkApplication.seed(context, catalogSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<SodaDTO> namePrefix() {
+        return sodaService.search(byNamePrefix, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<SodaDTO> brandAndType() {
+        return sodaService.search(byBrandAndType, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<SodaDTO> typeAndQuantityRange() {
+        return sodaService.search(byTypeAndQuantity, FIRST_PAGE);
+    }
+}
@@ -0,0 +1,68 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock mutations against the real H2 datasource: spread over the catalog and concentrated on a single hot SKU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class SodaServiceBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000;
+
+    private ConfigurableApplicationContext context;
+
+    private SodaService sodaService;
+
+    private List<Long> ids;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        Long nextId(List<Long> ids) {
+            return ids.get(next++ % ids.size());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        sodaService = context.getBean(SodaService.class);
+        ids = BenchmarkApplication.seed(context, CATALOG_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SodaDTO incrementAndDecrement(Cursor cursor) throws SodaNotFoundException, SodaStockExceededException {
+        Long id = cursor.nextId(ids);
+        sodaService.increment(id, 1);
+        return sodaService.decrement(id, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SodaDTO hotSkuIncrementAndDecrement() throws SodaNotFoundException, SodaStockExceededException {
+        Long id = ids.get(0);
+        sodaService.increment(id, 1);
+        return sodaService.decrement(id, 1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.service.SodaNameIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups against the in-memory name index over a seeded catalog. The seed bypasses the services, so the
+ * index is reloaded from the database once seeding is done. Prefixes range from one keystroke to a full name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SodaSuggestBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"s", "soda 12", "Soda 123456"})
+    public String prefix;
+
+    private ConfigurableApplicationContext context;
+
+    private SodaNameIndex sodaNameIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, catalogSize);
+        sodaNameIndex = context.getBean(SodaNameIndex.class);
+        sodaNameIndex.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return sodaNameIndex.suggest(prefix, 10);
+    }
+}
@@ -0,0 +1,93 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * JSON against the Smile and CBOR wire formats for SodaDTO lists, the payload of GET /api/v1/sodas and of
+ * POST /api/v1/sodas/bulk. Besides the encode and decode times, the size of the encoded list is reported as the
+ * {@code payloadBytes} secondary result of {@code serializeList}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SodaWireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"10000"})
+    public int listSize;
+
+    private ObjectWriter sodaListWriter;
+
+    private ObjectReader sodaListReader;
+
+    private List<SodaDTO> sodas;
+
+    private byte[] encodedSodas;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long payloadBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper(factory(format));
+        CollectionType sodaListType = TypeFactory.defaultInstance().constructCollectionType(List.class, SodaDTO.class);
+        sodaListWriter = objectMapper.writerFor(sodaListType);
+        sodaListReader = objectMapper.readerFor(sodaListType);
+        sodas = IntStream.range(0, listSize)
+                .mapToObj(index -> {
+                    SodaDTO sodaDTO = SodaMapper.INSTANCE.toDTO(BenchmarkApplication.soda(index));
+                    sodaDTO.setId((long) index);
+                    return sodaDTO;
+                })
+                .collect(Collectors.toList());
+        encodedSodas = sodaListWriter.writeValueAsBytes(sodas);
+    }
+
+    @Benchmark
+    public byte[] serializeList(Payload payload) throws IOException {
+        byte[] encoded = sodaListWriter.writeValueAsBytes(sodas);
+        payload.payloadBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public List<SodaDTO> deserializeList() throws IOException {
+        return sodaListReader.readValue(encodedSodas);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return new SmileFactory();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start to first answer on the persistent store: context start (which also warms the low-stock index from a
+ * full listing) plus the first lookup by name and the first full listing, with and without the catalog snapshot.
+ * The shutdown, which rewrites the snapshot, is kept out of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StartupBenchmark {
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    private Path dataDir;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("estoquerefrigerante-startup");
+        try (ConfigurableApplicationContext seedContext = BenchmarkApplication.start(properties())) {
+            BenchmarkApplication.seed(seedContext, catalogSize);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeContext() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public List<SodaDTO> startAndServe() throws SodaNotFoundException {
+        context = BenchmarkApplication.start(properties());
+        SodaService sodaService = context.getBean(SodaService.class);
+        sodaService.findByName("Soda " + (catalogSize / 2));
+        return sodaService.listAll();
+    }
+
+    private String[] properties() {
+        String[] storage = BenchmarkApplication.storage("persistent", dataDir);
+        String[] properties = new String[storage.length + 1];
+        System.arraycopy(storage, 0, properties, 0, storage.length);
+        properties[storage.length] = "soda.snapshot.enabled=" + snapshot;
+        return properties;
+    }
+}
@@ -0,0 +1,52 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart-to-ready time: how long the application context takes to start (migrations, schema validation and the
+ * in-memory indexes warmed from the database) and shut down again. The persistent store is seeded once per trial
+ * and reopened by every invocation; the in-memory store starts empty, which is exactly what it loses on restart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StorageRestartBenchmark {
+
+    @Param({"memory", "persistent"})
+    public String storage;
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    private Path dataDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("estoquerefrigerante-restart");
+        if ("persistent".equals(storage)) {
+            try (ConfigurableApplicationContext context = BenchmarkApplication.start(BenchmarkApplication.storage(storage, dataDir))) {
+                BenchmarkApplication.seed(context, catalogSize);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public void restart() {
+        BenchmarkApplication.start(BenchmarkApplication.storage(storage, dataDir)).close();
+    }
+}
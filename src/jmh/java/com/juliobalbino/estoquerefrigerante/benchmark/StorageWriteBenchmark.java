@@ -0,0 +1,73 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state stock write throughput of the file-backed store against the in-memory one, each mutation being a
+ * committed transaction that also appends to the stock ledger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StorageWriteBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"memory", "persistent"})
+    public String storage;
+
+    private Path dataDir;
+
+    private ConfigurableApplicationContext context;
+
+    private SodaService sodaService;
+
+    private List<Long> ids;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        Long nextId(List<Long> ids) {
+            return ids.get(next++ % ids.size());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("estoquerefrigerante-write");
+        context = BenchmarkApplication.start(BenchmarkApplication.storage(storage, dataDir));
+        sodaService = context.getBean(SodaService.class);
+        ids = BenchmarkApplication.seed(context, CATALOG_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public SodaDTO incrementAndDecrement(Cursor cursor) throws SodaNotFoundException, SodaStockExceededException {
+        Long id = cursor.nextId(ids);
+        sodaService.increment(id, 1);
+        return sodaService.decrement(id, 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.juliobalbino.estoquerefrigerante.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the REST layer under high concurrency, comparing Tomcat's thread-per-request pool with the
+ * virtual-threads profile. The virtual variant needs the benchmark to run on JDK 21+.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(256)
+public class WebThreadingBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000;
+
+    @Param({"platform", "virtual"})
+    public String threading;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private String baseUrl;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int nextIndex() {
+            return next++ % CATALOG_SIZE;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.SERVLET,
+                "server.port=0",
+                "server.tomcat.threads.max=200",
+                "spring.profiles.active=" + ("virtual".equals(threading) ? "virtual-threads" : "default"));
+        BenchmarkApplication.seed(context, CATALOG_SIZE);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/sodas/";
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int findByName(Cursor cursor) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "Soda%20" + cursor.nextIndex()))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,23 @@
+package com.juliobalbino.estoquerefrigerante.alert;
+
+import com.juliobalbino.estoquerefrigerante.event.StockAlertEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "soda.alerts.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingStockAlertSink {
+
+    @EventListener
+    public void onStockAlert(StockAlertEvent event) {
+        log.warn("{}: soda {} ({}) at {} of {} units",
+                event.getAlertType().getDescription(),
+                event.getSoda().getId(),
+                event.getSoda().getName(),
+                event.getSoda().getQuantity(),
+                event.getSoda().getMax());
+    }
+}
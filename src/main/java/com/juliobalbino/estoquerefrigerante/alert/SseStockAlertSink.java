@@ -0,0 +1,63 @@
+package com.juliobalbino.estoquerefrigerante.alert;
+
+import com.juliobalbino.estoquerefrigerante.event.StockAlertEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams alerts to the clients subscribed through {@code GET /api/v1/sodas/alerts}. Sending happens on a dedicated
+ * thread so a slow client delays only the other subscribers, never the stock update that raised the alert.
+ */
+@Component
+public class SseStockAlertSink {
+
+    private static final String EVENT_NAME = "stock-alert";
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService sendExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-alert-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    @EventListener
+    public void onStockAlert(StockAlertEvent event) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        sendExecutor.execute(() -> emitters.forEach(emitter -> send(emitter, event)));
+    }
+
+    @PreDestroy
+    public void stop() {
+        sendExecutor.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    private void send(SseEmitter emitter, StockAlertEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(event));
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.juliobalbino.estoquerefrigerante.alert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juliobalbino.estoquerefrigerante.event.StockAlertEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Posts each alert as JSON to {@code soda.alerts.webhook.url}. Delivery is asynchronous and best effort: failures
+ * are logged and never reach the thread that committed the stock change.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "soda.alerts.webhook.url")
+public class WebhookStockAlertSink {
+
+    private final ObjectMapper objectMapper;
+
+    private final URI webhookUri;
+
+    private final Duration timeout;
+
+    private final HttpClient httpClient;
+
+    public WebhookStockAlertSink(ObjectMapper objectMapper,
+                                 @Value("${soda.alerts.webhook.url}") URI webhookUri,
+                                 @Value("${soda.alerts.webhook.timeout:2s}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.webhookUri = webhookUri;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @EventListener
+    public void onStockAlert(StockAlertEvent event) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(webhookUri)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(event)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize stock alert {}", event, e);
+            return;
+        }
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.warn("Stock alert webhook failed for soda {}", event.getSoda().getId(), error);
+                    } else if (response.statusCode() >= 400) {
+                        log.warn("Stock alert webhook answered {} for soda {}", response.statusCode(), event.getSoda().getId());
+                    }
+                });
+    }
+}
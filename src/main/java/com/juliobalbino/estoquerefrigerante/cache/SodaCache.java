@@ -0,0 +1,99 @@
+package com.juliobalbino.estoquerefrigerante.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded read-through cache of sodas keyed by name. Entries are copied on the way in and out, so callers
+ * can never change a cached soda. Hit, miss and eviction counts are published as {@code cache.*} meters.
+ * <p>
+ * Writers never touch the cache: a soda is invalidated once its change is committed. A reader takes a
+ * {@link #stamp(String)} before loading a soda and {@link #put(SodaDTO, long)} drops the value when an
+ * invalidation happened in between, so a row read before a commit can't be cached after it.
+ */
+@Component
+public class SodaCache {
+
+    private static final String CACHE_NAME = "sodas";
+
+    private static final int STAMP_STRIPES = 1024;
+
+    private final Cache<String, SodaDTO> cache;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public SodaCache(MeterRegistry meterRegistry,
+                     @Value("${soda.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${soda.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Runs before the other listeners, so the entry is gone before the soda's ETag moves forward.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSodaChanged(SodaChangedEvent event) {
+        evict(event.getSoda().getName());
+    }
+
+    public SodaDTO get(String name) {
+        SodaDTO cachedSoda = cache.getIfPresent(name);
+        return cachedSoda == null ? null : copyOf(cachedSoda);
+    }
+
+    /**
+     * Invalidation stamp to take before loading the soda that will be passed to {@link #put(SodaDTO, long)}.
+     */
+    public long stamp(String name) {
+        return stamps.get(stripeOf(name));
+    }
+
+    /**
+     * Caches the soda unless it was invalidated since the stamp was taken.
+     */
+    public void put(SodaDTO sodaDTO, long stamp) {
+        int stripe = stripeOf(sodaDTO.getName());
+        cache.asMap().compute(sodaDTO.getName(),
+                (name, cachedSoda) -> stamps.get(stripe) == stamp ? copyOf(sodaDTO) : cachedSoda);
+    }
+
+    public void evict(String name) {
+        int stripe = stripeOf(name);
+        cache.asMap().compute(name, (key, cachedSoda) -> {
+            stamps.incrementAndGet(stripe);
+            return null;
+        });
+    }
+
+    private static int stripeOf(String name) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    private SodaDTO copyOf(SodaDTO sodaDTO) {
+        return new SodaDTO(sodaDTO.getId(),
+                sodaDTO.getName(),
+                sodaDTO.getBrand(),
+                sodaDTO.getMax(),
+                sodaDTO.getQuantity(),
+                sodaDTO.getType());
+    }
+}
@@ -0,0 +1,122 @@
+package com.juliobalbino.estoquerefrigerante.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import com.juliobalbino.estoquerefrigerante.service.SodaVersionRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The full catalog as ready-to-send JSON bytes, plus a gzipped copy when {@code soda.catalog-cache.gzip} is set.
+ * Each serialized catalog is tagged with the catalog version it is known to include, read from the
+ * {@link SodaVersionRegistry} just before the catalog is scanned. A request for that version or an older one gets
+ * the cached copy, since a tag may be older than the data it is sent with; only a request for a newer version
+ * rebuilds it, once, so readers still holding an older tag never make the copy flip back and forth.
+ */
+@Component
+public class SodaCatalogCache {
+
+    private final SodaService sodaService;
+
+    private final SodaVersionRegistry sodaVersionRegistry;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final boolean gzip;
+
+    private volatile SerializedCatalog serializedCatalog;
+
+    public SodaCatalogCache(SodaService sodaService,
+                            SodaVersionRegistry sodaVersionRegistry,
+                            ObjectMapper objectMapper,
+                            @Value("${soda.catalog-cache.enabled:true}") boolean enabled,
+                            @Value("${soda.catalog-cache.gzip:true}") boolean gzip) {
+        this.sodaService = sodaService;
+        this.sodaVersionRegistry = sodaVersionRegistry;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Whether {@link #get(long)} returns a gzipped copy, known before anything is serialized.
+     */
+    public boolean servesGzip() {
+        return enabled && gzip;
+    }
+
+    /**
+     * The catalog serialized at the given catalog version or a later one, or null when the cache is disabled.
+     */
+    public SerializedCatalog get(long catalogVersion) {
+        if (!enabled) {
+            return null;
+        }
+        SerializedCatalog current = serializedCatalog;
+        if (current != null && current.getCatalogVersion() >= catalogVersion) {
+            return current;
+        }
+        synchronized (this) {
+            current = serializedCatalog;
+            if (current == null || current.getCatalogVersion() < catalogVersion) {
+                current = serialize(catalogVersion);
+                serializedCatalog = current;
+            }
+            return current;
+        }
+    }
+
+    private SerializedCatalog serialize(long requestedVersion) {
+        long catalogVersion = Math.max(requestedVersion, sodaVersionRegistry.catalogVersion());
+        try {
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+                generator.writeStartArray();
+                sodaService.streamAll(sodaDTO -> {
+                    try {
+                        objectMapper.writeValue(generator, sodaDTO);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+            byte[] jsonBytes = json.toByteArray();
+            return new SerializedCatalog(catalogVersion, jsonBytes, gzip ? gzip(jsonBytes) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(gzipped)) {
+            gzipStream.write(bytes);
+        }
+        return gzipped.toByteArray();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class SerializedCatalog {
+
+        private final long catalogVersion;
+
+        private final byte[] json;
+
+        /**
+         * Gzipped {@link #json}, or null when pre-compression is off.
+         */
+        private final byte[] gzippedJson;
+    }
+}
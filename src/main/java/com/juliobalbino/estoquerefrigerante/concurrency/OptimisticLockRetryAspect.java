@@ -0,0 +1,80 @@
+package com.juliobalbino.estoquerefrigerante.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries {@link RetryOnOptimisticLock} methods on optimistic locking conflicts, up to a fixed number of attempts,
+ * sleeping an exponentially growing, jittered backoff in between. Ordered ahead of the transaction interceptor so
+ * every attempt runs in a fresh transaction. Conflicts and retries are counted per operation.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticLockRetryAspect {
+
+    private static final String CONFLICT_METRIC = "soda.optimistic.conflicts";
+
+    private static final String RETRY_METRIC = "soda.optimistic.retries";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    public OptimisticLockRetryAspect(MeterRegistry meterRegistry,
+                                     @Value("${soda.optimistic-lock.max-attempts:5}") int maxAttempts,
+                                     @Value("${soda.optimistic-lock.initial-backoff:5ms}") Duration initialBackoff,
+                                     @Value("${soda.optimistic-lock.max-backoff:200ms}") Duration maxBackoff) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    @Around("@annotation(retryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retryOnOptimisticLock) throws Throwable {
+        String operation = retryOnOptimisticLock.operation();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                meterRegistry.counter(CONFLICT_METRIC, "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up {} after {} optimistic locking conflicts", operation, attempt);
+                    throw e;
+                }
+                meterRegistry.counter(RETRY_METRIC, "operation", operation).increment();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, RuntimeException conflict) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        long sleepNanos = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
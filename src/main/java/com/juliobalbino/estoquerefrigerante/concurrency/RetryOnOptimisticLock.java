@@ -0,0 +1,23 @@
+package com.juliobalbino.estoquerefrigerante.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-invokes the annotated method when it fails with an optimistic locking conflict. The method must re-read the
+ * state it changes, and any transaction it starts must be inside the retry, which {@link OptimisticLockRetryAspect}
+ * guarantees for {@code @Transactional} methods.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * Value of the {@code operation} tag on the conflict and retry meters.
+     */
+    String operation();
+}
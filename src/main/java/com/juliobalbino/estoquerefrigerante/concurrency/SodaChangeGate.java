@@ -0,0 +1,79 @@
+package com.juliobalbino.estoquerefrigerante.concurrency;
+
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Orders catalog and stock changes against full reads of the catalog that must see each change exactly once, like
+ * the statistics recomputation. A change holds the gate from before its effect becomes visible until its
+ * {@link com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent} has been handled, while an exclusive reader
+ * waits for the changes in flight and holds new ones off. Passes are plain stamps that any thread may release, so
+ * a reactive pipeline can enter on one thread and leave on another.
+ */
+@Component
+public class SodaChangeGate {
+
+    /**
+     * Order of the synchronization that releases a transaction's pass; synchronizations that handle the
+     * transaction's events must run before it.
+     */
+    public static final int RELEASE_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Enters the gate for one change, waiting while an exclusive reader holds it. Not reentrant: a thread already
+     * holding a pass must not enter again.
+     */
+    public long enter() {
+        return lock.readLock();
+    }
+
+    public void exit(long stamp) {
+        lock.unlockRead(stamp);
+    }
+
+    /**
+     * Enters the gate until the current transaction completes. Entering again within the same transaction is a
+     * no-op, so every step of a transaction that changes the catalog can call it.
+     */
+    public void enterUntilCompletion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("The soda change gate can only be bound to an active transaction");
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        long stamp = enter();
+        TransactionSynchronizationManager.bindResource(this, stamp);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return RELEASE_ORDER;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SodaChangeGate.this);
+                exit(stamp);
+            }
+        });
+    }
+
+    /**
+     * Runs the action once no change is in flight, keeping new ones out until it returns.
+     */
+    public <T> T exclusively(Supplier<T> action) {
+        long stamp = lock.writeLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
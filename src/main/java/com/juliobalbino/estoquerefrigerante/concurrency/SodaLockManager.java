@@ -0,0 +1,135 @@
+package com.juliobalbino.estoquerefrigerante.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes stock mutations per soda inside this JVM. Ids are hashed onto a fixed number of lock stripes, so
+ * mutations of different sodas proceed in parallel and only ids sharing a stripe wait for each other. Requests
+ * for several ids take their stripes in ascending order, which keeps concurrent batches free of deadlocks.
+ */
+@Component
+public class SodaLockManager {
+
+    private static final String LOCK_WAIT_METRIC = "soda.lock.wait";
+
+    private static final String LOCK_TIMEOUT_METRIC = "soda.lock.timeouts";
+
+    private final ReentrantLock[] stripes;
+
+    private final Duration timeout;
+
+    private final Timer lockWaitTimer;
+
+    private final Counter lockTimeoutCounter;
+
+    public SodaLockManager(MeterRegistry meterRegistry,
+                           @Value("${soda.lock.stripes:1024}") int stripeCount,
+                           @Value("${soda.lock.timeout:5s}") Duration timeout) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("soda.lock.stripes must be positive, got " + stripeCount);
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeout = timeout;
+        this.lockWaitTimer = Timer.builder(LOCK_WAIT_METRIC)
+                .description("Time spent waiting for per-soda stock locks")
+                .register(meterRegistry);
+        this.lockTimeoutCounter = Counter.builder(LOCK_TIMEOUT_METRIC)
+                .description("Stock lock requests that gave up after the lock timeout")
+                .register(meterRegistry);
+    }
+
+    public SodaLocks lock(Long id) {
+        return lock(Collections.singleton(id));
+    }
+
+    public SodaLocks lock(Collection<Long> ids) {
+        int[] stripeIndexes = ids.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        List<ReentrantLock> acquired = new ArrayList<>(stripeIndexes.length);
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            for (int stripeIndex : stripeIndexes) {
+                ReentrantLock stripe = stripes[stripeIndex];
+                if (!stripe.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    lockTimeoutCounter.increment();
+                    throw new CannotAcquireLockException("Timed out after " + timeout + " waiting for the stock lock of sodas " + ids);
+                }
+                acquired.add(stripe);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(acquired);
+            throw new CannotAcquireLockException("Interrupted while waiting for the stock lock of sodas " + ids, e);
+        } catch (RuntimeException e) {
+            unlock(acquired);
+            throw e;
+        } finally {
+            lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return new SodaLocks(acquired);
+    }
+
+    /**
+     * Locks the ids until the current transaction completes, so a stock change is committed before the next
+     * mutation of the same soda starts.
+     */
+    public void lockUntilCompletion(Collection<Long> ids) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock locks can only be bound to an active transaction");
+        }
+        SodaLocks locks = lock(ids);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                locks.close();
+            }
+        });
+    }
+
+    private int stripeOf(Long id) {
+        int hash = Long.hashCode(id);
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    public static final class SodaLocks implements AutoCloseable {
+
+        private final List<ReentrantLock> locks;
+
+        private SodaLocks(List<ReentrantLock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            unlock(locks);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.juliobalbino.estoquerefrigerante.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary alternatives to JSON for internal callers, picked by content negotiation: {@code application/x-jackson-smile}
+ * and {@code application/cbor} in the Accept or Content-Type header. They replace Spring's default Smile and CBOR
+ * converters so both formats follow the same {@code spring.jackson.*} settings as JSON, and stay behind the JSON
+ * converter so clients that accept anything keep getting JSON.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.smile().build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.cbor().build());
+    }
+}
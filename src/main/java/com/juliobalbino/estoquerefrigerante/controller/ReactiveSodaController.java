@@ -0,0 +1,56 @@
+package com.juliobalbino.estoquerefrigerante.controller;
+
+import com.juliobalbino.estoquerefrigerante.dto.QuantityDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.service.ReactiveSodaService;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+@RestController
+@Profile("!kiosk")
+@RequestMapping("/api/reactive/v1/sodas")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveSodaController implements ReactiveSodaControllerDocs {
+
+    private final ReactiveSodaService reactiveSodaService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<SodaDTO> createSoda(@RequestBody @Valid SodaDTO sodaDTO) {
+        return reactiveSodaService.createSoda(sodaDTO);
+    }
+
+    @GetMapping("/{name}")
+    public Mono<SodaDTO> findByName(@PathVariable String name) {
+        return reactiveSodaService.findByName(name);
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<SodaDTO> listSodas() {
+        return reactiveSodaService.listAll();
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return reactiveSodaService.deleteById(id);
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<SodaDTO> increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return reactiveSodaService.increment(id, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public Mono<SodaDTO> decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return reactiveSodaService.decrement(id, quantityDTO.getQuantity());
+    }
+}
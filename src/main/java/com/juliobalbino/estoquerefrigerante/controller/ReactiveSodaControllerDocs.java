@@ -0,0 +1,57 @@
+package com.juliobalbino.estoquerefrigerante.controller;
+
+import com.juliobalbino.estoquerefrigerante.dto.QuantityDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Api("Manages Soda stock without blocking request threads")
+public interface ReactiveSodaControllerDocs {
+
+    @ApiOperation(value = "Soda creation operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success Soda creation"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value or name already registered.")
+    })
+    Mono<SodaDTO> createSoda(SodaDTO sodaDTO);
+
+    @ApiOperation(value = "Returns Soda found by a given name")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success Soda found in the system"),
+            @ApiResponse(code = 404, message = "Soda with given name not found.")
+    })
+    Mono<SodaDTO> findByName(String name);
+
+    @ApiOperation(value = "Streams all Sodas registered in the system, as a JSON array or newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "All Sodas registered in the system"),
+    })
+    Flux<SodaDTO> listSodas();
+
+    @ApiOperation(value = "Delete a Soda found by a given valid Id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success Soda deleted in the system"),
+            @ApiResponse(code = 404, message = "Soda with given id not found.")
+    })
+    Mono<Void> deleteById(Long id);
+
+    @ApiOperation(value = "Increments the stock of a Soda")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Soda with the incremented stock"),
+            @ApiResponse(code = 400, message = "Increment exceeds the max stock capacity."),
+            @ApiResponse(code = 404, message = "Soda with given id not found.")
+    })
+    Mono<SodaDTO> increment(Long id, QuantityDTO quantityDTO);
+
+    @ApiOperation(value = "Decrements the stock of a Soda")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Soda with the decremented stock"),
+            @ApiResponse(code = 400, message = "Decrement leaves the stock below zero."),
+            @ApiResponse(code = 404, message = "Soda with given id not found.")
+    })
+    Mono<SodaDTO> decrement(Long id, QuantityDTO quantityDTO);
+}
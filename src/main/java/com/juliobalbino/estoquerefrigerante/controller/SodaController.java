@@ -1,17 +1,46 @@
 package com.juliobalbino.estoquerefrigerante.controller;
 
+import com.juliobalbino.estoquerefrigerante.alert.SseStockAlertSink;
+import com.juliobalbino.estoquerefrigerante.cache.SodaCatalogCache;
+import com.juliobalbino.estoquerefrigerante.cache.SodaCatalogCache.SerializedCatalog;
+import com.juliobalbino.estoquerefrigerante.dto.SodaBatchDTO;
 import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
 import com.juliobalbino.estoquerefrigerante.dto.QuantityDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentRequestDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockStatisticsDTO;
 import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
 import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
 import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.service.LowStockIndex;
+import com.juliobalbino.estoquerefrigerante.service.SodaChangeFeed;
+import com.juliobalbino.estoquerefrigerante.service.SodaNameIndex;
 import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import com.juliobalbino.estoquerefrigerante.service.SodaStatistics;
+import com.juliobalbino.estoquerefrigerante.service.SodaVersionRegistry;
+import com.juliobalbino.estoquerefrigerante.service.StockCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -19,22 +48,151 @@ import java.util.List;
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class SodaController implements SodaControllerDocs {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final String JSON_FORMAT = "json";
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     private final SodaService sodaService;
 
+    private final StockCoalescer stockCoalescer;
+
+    private final SodaStatistics sodaStatistics;
+
+    private final LowStockIndex lowStockIndex;
+
+    private final SseStockAlertSink sseStockAlertSink;
+
+    private final SodaChangeFeed sodaChangeFeed;
+
+    private final SodaVersionRegistry sodaVersionRegistry;
+
+    private final SodaNameIndex sodaNameIndex;
+
+    private final ObjectMapper objectMapper;
+
+    private final SodaCatalogCache sodaCatalogCache;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public SodaDTO createSoda(@RequestBody @Valid SodaDTO sodaDTO) throws SodaAlreadyRegisteredException {
         return sodaService.createSoda(sodaDTO);
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<SodaDTO> createSodas(@RequestBody @Valid SodaBatchDTO sodaBatchDTO) throws SodaAlreadyRegisteredException {
+        return sodaService.createSodas(sodaBatchDTO.getSodas());
+    }
+
     @GetMapping("/{name}")
-    public SodaDTO findByName(@PathVariable String name) throws SodaNotFoundException {
-        return sodaService.findByName(name);
+    public ResponseEntity<SodaDTO> findByName(@PathVariable String name, NativeWebRequest webRequest) throws SodaNotFoundException {
+        String eTag = variantOf(sodaVersionRegistry.eTagOf(name), negotiatedFormat(webRequest));
+        varyBy(webRequest, HttpHeaders.ACCEPT);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(sodaService.findByName(name));
     }
 
+    /**
+     * Each representation gets its own ETag: the negotiated format is part of it, and the pre-compressed catalog adds
+     * a {@code gzip} suffix since its bytes differ from the identity response.
+     */
     @GetMapping
-    public List<SodaDTO> listSodas() {
-        return sodaService.listAll();
+    public ResponseEntity<?> listSodas(NativeWebRequest webRequest) {
+        long catalogVersion = sodaVersionRegistry.catalogVersion();
+        String catalogETag = sodaVersionRegistry.catalogETag(catalogVersion);
+        String format = negotiatedFormat(webRequest);
+        boolean preSerialized = JSON_FORMAT.equals(format);
+        boolean gzipped = preSerialized && acceptsGzip(webRequest) && sodaCatalogCache.servesGzip();
+        String eTag = variantOf(catalogETag, format);
+        if (gzipped) {
+            eTag = variantOf(eTag, "gzip");
+        }
+        if (preSerialized) {
+            varyBy(webRequest, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        } else {
+            varyBy(webRequest, HttpHeaders.ACCEPT);
+        }
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        SerializedCatalog serializedCatalog = preSerialized ? sodaCatalogCache.get(catalogVersion) : null;
+        if (serializedCatalog == null) {
+            return ResponseEntity.ok().eTag(eTag).body(sodaService.listAll());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzipped) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serializedCatalog.getGzippedJson());
+        }
+        return response.body(serializedCatalog.getJson());
+    }
+
+    @GetMapping(params = "page")
+    public Page<SodaDTO> listSodasPage(Pageable pageable) {
+        return sodaService.listPage(pageable);
+    }
+
+    @GetMapping("/search")
+    public Page<SodaDTO> searchSodas(@Valid SodaSearchCriteriaDTO criteria, Pageable pageable) {
+        return sodaService.search(criteria, pageable);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestNames(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return sodaNameIndex.suggest(prefix, limit);
+    }
+
+    @GetMapping(params = "afterId")
+    public List<SodaDTO> listSodasAfter(@RequestParam Long afterId, @RequestParam(defaultValue = "100") int size) {
+        return sodaService.listAfter(afterId, size);
+    }
+
+    @GetMapping("/stats")
+    public StockStatisticsDTO stockStatistics() {
+        return sodaStatistics.snapshot();
+    }
+
+    @PostMapping("/stats/recompute")
+    public StockStatisticsDTO recomputeStockStatistics() {
+        return sodaStatistics.recompute();
+    }
+
+    @GetMapping("/low-stock")
+    public List<SodaDTO> listLowStock(@RequestParam(defaultValue = "100") int limit) {
+        return lowStockIndex.lowStock(limit);
+    }
+
+    @GetMapping(value = "/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockAlerts() {
+        return sseStockAlertSink.subscribe();
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String since) {
+        return sodaChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportSodas() {
+        return outputStream -> sodaService.streamAll(sodaDTO -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(sodaDTO));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @GetMapping("/{id}/movements")
+    public Page<StockMovementDTO> listMovements(@PathVariable Long id, Pageable pageable) {
+        return sodaService.listMovements(id, pageable);
     }
 
     @DeleteMapping("/{id}")
@@ -45,11 +203,85 @@ public class SodaController implements SodaControllerDocs {
 
     @PatchMapping("/{id}/increment")
     public SodaDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws SodaNotFoundException, SodaStockExceededException {
+        if (stockCoalescer.isEnabled()) {
+            return stockCoalescer.increment(id, quantityDTO.getQuantity());
+        }
         return sodaService.increment(id, quantityDTO.getQuantity());
     }
 
     @PatchMapping("/{id}/decrement")
     public SodaDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws SodaNotFoundException, SodaStockExceededException {
+        if (stockCoalescer.isEnabled()) {
+            return stockCoalescer.decrement(id, quantityDTO.getQuantity());
+        }
         return sodaService.decrement(id, quantityDTO.getQuantity());
     }
+
+    @PatchMapping("/stock")
+    public List<StockAdjustmentResultDTO> adjustStock(@RequestBody @Valid StockAdjustmentRequestDTO stockAdjustmentRequestDTO) throws SodaNotFoundException, SodaStockExceededException {
+        return sodaService.adjustStock(stockAdjustmentRequestDTO.getAdjustments(), stockAdjustmentRequestDTO.getMode());
+    }
+
+    /**
+     * The format content negotiation will pick for the soda representations: {@code json}, {@code smile} or
+     * {@code cbor}, or null when it cannot be told from the Accept header, e.g. JSON explicitly refused.
+     */
+    private static String negotiatedFormat(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return JSON_FORMAT;
+        }
+        try {
+            List<MediaType> acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+            for (MediaType acceptedMediaType : acceptedMediaTypes) {
+                if (acceptedMediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return acceptedMediaType.getQualityValue() > 0 ? JSON_FORMAT : null;
+                }
+                if (acceptedMediaType.isCompatibleWith(APPLICATION_SMILE)) {
+                    return "smile";
+                }
+                if (acceptedMediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    return "cbor";
+                }
+            }
+            return null;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The ETag of one variant of the resource, e.g. {@code "soda-1f-3"} becomes {@code "soda-1f-3-smile"}.
+     */
+    private static String variantOf(String eTag, String variant) {
+        if (variant == null) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + "-" + variant + "\"";
+    }
+
+    /**
+     * Sets Vary on the response up front, so 304 responses carry it as well.
+     */
+    private static void varyBy(NativeWebRequest webRequest, String... requestHeaders) {
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.setHeader(HttpHeaders.VARY, String.join(", ", requestHeaders));
+        }
+    }
+
+    private static boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] codingAndQuality = coding.trim().split(";");
+            if (codingAndQuality[0].trim().equalsIgnoreCase("gzip")) {
+                return codingAndQuality.length == 1 || !codingAndQuality[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -1,13 +1,26 @@
 package com.juliobalbino.estoquerefrigerante.controller;
 
+import com.juliobalbino.estoquerefrigerante.dto.SodaBatchDTO;
 import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentRequestDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockStatisticsDTO;
 import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
 import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,18 +34,94 @@ public interface SodaControllerDocs {
     })
     SodaDTO createSoda(SodaDTO SodaDTO) throws SodaAlreadyRegisteredException;
 
+    @ApiOperation(value = "Bulk Soda creation operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success Sodas creation"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value, more than 1000 Sodas or name already registered.")
+    })
+    List<SodaDTO> createSodas(SodaBatchDTO sodaBatchDTO) throws SodaAlreadyRegisteredException;
+
     @ApiOperation(value = "Returns Soda found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success Soda found in the system"),
+            @ApiResponse(code = 304, message = "Soda unchanged since the version given in If-None-Match"),
             @ApiResponse(code = 404, message = "Soda with given name not found.")
     })
-    SodaDTO findByName(@PathVariable String name) throws SodaNotFoundException;
+    ResponseEntity<SodaDTO> findByName(@PathVariable String name, NativeWebRequest webRequest) throws SodaNotFoundException;
 
     @ApiOperation(value = "Returns a list of all Sodas registered in the system")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "List of all Sodas registered in the system"),
+            @ApiResponse(code = 200, message = "List of all Sodas registered in the system", response = SodaDTO.class, responseContainer = "List"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the version given in If-None-Match"),
+    })
+    ResponseEntity<?> listSodas(NativeWebRequest webRequest);
+
+    @ApiOperation(value = "Returns a page of Sodas, selected by the page, size and sort parameters")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Requested page of Sodas"),
+    })
+    Page<SodaDTO> listSodasPage(Pageable pageable);
+
+    @ApiOperation(value = "Returns a page of Sodas filtered by name prefix, brand, type and quantity or max ranges")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Requested page of matching Sodas"),
+            @ApiResponse(code = 400, message = "Invalid filter value.")
+    })
+    Page<SodaDTO> searchSodas(SodaSearchCriteriaDTO criteria, Pageable pageable);
+
+    @ApiOperation(value = "Returns Soda names starting with the given prefix, ignoring case, for autocomplete")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Matching Soda names in alphabetical order"),
+    })
+    List<String> suggestNames(String prefix, int limit);
+
+    @ApiOperation(value = "Returns up to size Sodas ordered by id, starting after the given afterId")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Next Sodas after the given id"),
     })
-    List<SodaDTO> listSodas();
+    List<SodaDTO> listSodasAfter(Long afterId, int size);
+
+    @ApiOperation(value = "Returns units, fill ratio and low stock counts in total, per Soda type and per brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Current stock statistics"),
+    })
+    StockStatisticsDTO stockStatistics();
+
+    @ApiOperation(value = "Recomputes the stock statistics from the catalog as a consistency check")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Recomputed stock statistics"),
+    })
+    StockStatisticsDTO recomputeStockStatistics();
+
+    @ApiOperation(value = "Returns the Sodas at or below the low-stock ratio, emptiest first")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Sodas running low on stock"),
+    })
+    List<SodaDTO> listLowStock(int limit);
+
+    @ApiOperation(value = "Streams low-stock and restored alerts as server-sent events")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock alerts, one event per threshold crossing"),
+    })
+    SseEmitter streamStockAlerts();
+
+    @ApiOperation(value = "Streams created, deleted and restocked Sodas as server-sent events, resumable by event id")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Soda changes in commit order; a reset event means changes were missed"),
+    })
+    SseEmitter streamChanges(String lastEventId, String since);
+
+    @ApiOperation(value = "Streams every Soda registered in the system as newline delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "All Sodas, one JSON document per line"),
+    })
+    StreamingResponseBody exportSodas();
+
+    @ApiOperation(value = "Returns a page of the stock movements of a Soda, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock movements recorded for the given id"),
+    })
+    Page<StockMovementDTO> listMovements(Long id, Pageable pageable);
 
     @ApiOperation(value = "Delete a Soda found by a given valid Id")
     @ApiResponses(value = {
@@ -40,4 +129,12 @@ public interface SodaControllerDocs {
             @ApiResponse(code = 404, message = "Soda with given id not found.")
     })
     void deleteById(@PathVariable Long id) throws SodaNotFoundException;
+
+    @ApiOperation(value = "Applies a list of stock deltas in a single transaction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Result of each stock adjustment"),
+            @ApiResponse(code = 400, message = "Adjustment exceeds the stock range in ALL_OR_NOTHING mode."),
+            @ApiResponse(code = 404, message = "Soda with given id not found in ALL_OR_NOTHING mode.")
+    })
+    List<StockAdjustmentResultDTO> adjustStock(StockAdjustmentRequestDTO stockAdjustmentRequestDTO) throws SodaNotFoundException, SodaStockExceededException;
 }
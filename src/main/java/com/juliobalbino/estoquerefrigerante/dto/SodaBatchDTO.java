@@ -0,0 +1,29 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SodaBatchDTO {
+
+    /**
+     * Large enough to onboard a whole catalog in one call; the service flushes and clears the persistence context as
+     * it inserts, so the heap is bounded by the request body rather than by managed entities.
+     */
+    public static final int MAX_SODAS = 50_000;
+
+    @NotEmpty
+    @Size(max = MAX_SODAS)
+    @Valid
+    private List<SodaDTO> sodas;
+}
@@ -0,0 +1,22 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import com.juliobalbino.estoquerefrigerante.enums.SodaChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SodaChangeDTO {
+
+    private Long sequence;
+
+    private SodaChangeType changeType;
+
+    private Integer quantityDelta;
+
+    private SodaDTO soda;
+}
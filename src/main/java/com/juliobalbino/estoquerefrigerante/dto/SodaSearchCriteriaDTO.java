@@ -0,0 +1,40 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+
+/**
+ * Optional filters of the soda search; unset fields do not restrict the result. Ranges are inclusive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SodaSearchCriteriaDTO {
+
+    @Size(min = 1, max = 200)
+    private String namePrefix;
+
+    @Size(min = 1, max = 200)
+    private String brand;
+
+    private SodaType type;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @Min(0)
+    private Integer maxQuantity;
+
+    @Min(0)
+    private Integer minMax;
+
+    @Min(0)
+    private Integer maxMax;
+}
@@ -0,0 +1,27 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequestDTO {
+
+    @NotNull
+    @Builder.Default
+    private StockAdjustmentMode mode = StockAdjustmentMode.ALL_OR_NOTHING;
+
+    @NotEmpty
+    @Valid
+    private List<StockAdjustmentDTO> adjustments;
+}
@@ -0,0 +1,24 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResultDTO {
+
+    private Long id;
+
+    private Integer delta;
+
+    private StockAdjustmentStatus status;
+
+    private SodaDTO soda;
+
+    private String message;
+}
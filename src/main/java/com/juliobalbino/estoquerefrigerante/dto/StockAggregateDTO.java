@@ -0,0 +1,25 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAggregateDTO {
+
+    private String key;
+
+    private Long sodas;
+
+    private Long units;
+
+    private Long capacity;
+
+    private Double fillRatio;
+
+    private Long lowStock;
+}
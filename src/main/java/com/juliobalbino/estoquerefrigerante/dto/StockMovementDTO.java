@@ -0,0 +1,28 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDTO {
+
+    private Long id;
+
+    private Long sodaId;
+
+    private Integer delta;
+
+    private Integer quantityAfter;
+
+    private StockMovementReason reason;
+
+    private Instant occurredAt;
+}
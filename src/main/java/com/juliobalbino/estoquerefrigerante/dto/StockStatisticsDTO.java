@@ -0,0 +1,21 @@
+package com.juliobalbino.estoquerefrigerante.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStatisticsDTO {
+
+    private StockAggregateDTO total;
+
+    private List<StockAggregateDTO> byType;
+
+    private List<StockAggregateDTO> byBrand;
+}
@@ -9,12 +9,18 @@ import javax.persistence.*;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_soda_brand", columnList = "brand"),
+        @Index(name = "idx_soda_type_quantity", columnList = "type, quantity"),
+        @Index(name = "idx_soda_quantity", columnList = "quantity")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Soda {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "soda_sequence")
+    @SequenceGenerator(name = "soda_sequence", sequenceName = "soda_sequence", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -32,4 +38,7 @@ public class Soda {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private SodaType type;
+
+    @Version
+    private long version;
 }
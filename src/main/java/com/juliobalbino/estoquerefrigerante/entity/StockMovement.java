@@ -0,0 +1,38 @@
+package com.juliobalbino.estoquerefrigerante.entity;
+
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_stock_movement_soda", columnList = "sodaId, occurredAt"))
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_sequence")
+    @SequenceGenerator(name = "stock_movement_sequence", sequenceName = "stock_movement_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long sodaId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private int quantityAfter;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockMovementReason reason;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,16 @@
+package com.juliobalbino.estoquerefrigerante.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum SodaChangeType {
+
+    CREATED("Created"),
+    STOCK_CHANGED("Stock changed"),
+    DELETED("Deleted");
+
+    private final String description;
+
+}
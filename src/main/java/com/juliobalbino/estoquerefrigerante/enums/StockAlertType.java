@@ -0,0 +1,15 @@
+package com.juliobalbino.estoquerefrigerante.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockAlertType {
+
+    LOW_STOCK("Low stock"),
+    RESTORED("Restored");
+
+    private final String description;
+
+}
@@ -0,0 +1,19 @@
+package com.juliobalbino.estoquerefrigerante.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockMovementReason {
+
+    CREATED("Created"),
+    INCREMENT("Increment"),
+    DECREMENT("Decrement"),
+    ADJUSTMENT("Adjustment"),
+    REVERSAL("Reversal"),
+    SNAPSHOT("Snapshot");
+
+    private final String description;
+
+}
@@ -0,0 +1,40 @@
+package com.juliobalbino.estoquerefrigerante.event;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.enums.SodaChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the services whenever a soda is created, deleted or has its stock changed. {@code soda} is the state
+ * after the change (the last known state for a deletion) and {@code quantityDelta} how much its quantity moved:
+ * the initial quantity for a creation and minus the remaining quantity for a deletion.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SodaChangedEvent {
+
+    private final SodaChangeType changeType;
+
+    private final SodaDTO soda;
+
+    private final int quantityDelta;
+
+    public static SodaChangedEvent created(SodaDTO soda) {
+        return new SodaChangedEvent(SodaChangeType.CREATED, soda, soda.getQuantity());
+    }
+
+    public static SodaChangedEvent stockChanged(SodaDTO soda, int quantityDelta) {
+        return new SodaChangedEvent(SodaChangeType.STOCK_CHANGED, soda, quantityDelta);
+    }
+
+    public static SodaChangedEvent deleted(SodaDTO soda) {
+        return new SodaChangedEvent(SodaChangeType.DELETED, soda, -soda.getQuantity());
+    }
+
+    public int getPreviousQuantity() {
+        return changeType == SodaChangeType.DELETED ? soda.getQuantity() : soda.getQuantity() - quantityDelta;
+    }
+}
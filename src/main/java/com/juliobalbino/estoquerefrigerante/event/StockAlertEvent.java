@@ -0,0 +1,22 @@
+package com.juliobalbino.estoquerefrigerante.event;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.enums.StockAlertType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the low-stock index when a soda crosses the low-stock ratio, in either direction.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StockAlertEvent {
+
+    private final StockAlertType alertType;
+
+    private final SodaDTO soda;
+
+    private final double fillRatio;
+}
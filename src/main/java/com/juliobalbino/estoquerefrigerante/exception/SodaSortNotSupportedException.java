@@ -0,0 +1,12 @@
+package com.juliobalbino.estoquerefrigerante.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class SodaSortNotSupportedException extends RuntimeException {
+
+    public SodaSortNotSupportedException(String property) {
+        super(String.format("Sodas cannot be sorted by %s.", property));
+    }
+}
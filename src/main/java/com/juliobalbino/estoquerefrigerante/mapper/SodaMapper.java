@@ -3,6 +3,7 @@ package com.juliobalbino.estoquerefrigerante.mapper;
 import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
 import com.juliobalbino.estoquerefrigerante.entity.Soda;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -10,6 +11,7 @@ public interface SodaMapper {
 
     SodaMapper INSTANCE = Mappers.getMapper(SodaMapper.class);
 
+    @Mapping(target = "version", ignore = true)
     Soda toModel(SodaDTO sodaDTO);
 
     SodaDTO toDTO(Soda soda);
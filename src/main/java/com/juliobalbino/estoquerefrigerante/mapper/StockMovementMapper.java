@@ -0,0 +1,14 @@
+package com.juliobalbino.estoquerefrigerante.mapper;
+
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.entity.StockMovement;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+@Mapper
+public interface StockMovementMapper {
+
+    StockMovementMapper INSTANCE = Mappers.getMapper(StockMovementMapper.class);
+
+    StockMovementDTO toDTO(StockMovement stockMovement);
+}
@@ -0,0 +1,100 @@
+package com.juliobalbino.estoquerefrigerante.repository;
+
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import io.r2dbc.spi.Row;
+import lombok.AllArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Non-blocking R2DBC counterpart of {@link SodaRepository}, reading and writing the same {@code soda} table.
+ */
+@Repository
+@Profile("!kiosk")
+@AllArgsConstructor
+public class ReactiveSodaRepository {
+
+    private static final String SELECT_SODA = "SELECT id, name, brand, max, quantity, type, version FROM soda";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Soda> findByName(String name) {
+        return databaseClient.sql(SELECT_SODA + " WHERE name = :name")
+                .bind("name", name)
+                .map(this::toSoda)
+                .one();
+    }
+
+    public Mono<Soda> findById(Long id) {
+        return databaseClient.sql(SELECT_SODA + " WHERE id = :id")
+                .bind("id", id)
+                .map(this::toSoda)
+                .one();
+    }
+
+    public Flux<Soda> findAll() {
+        return databaseClient.sql(SELECT_SODA + " ORDER BY id")
+                .map(this::toSoda)
+                .all();
+    }
+
+    /**
+     * Inserts the soda with an id drawn from the sequence Hibernate allocates from, so both paths can write
+     * to the table without colliding.
+     */
+    public Mono<Soda> insert(Soda soda) {
+        return databaseClient.sql("SELECT NEXT VALUE FOR soda_sequence")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("INSERT INTO soda (id, name, brand, max, quantity, type, version) VALUES (:id, :name, :brand, :max, :quantity, :type, 0)")
+                        .bind("id", id)
+                        .bind("name", soda.getName())
+                        .bind("brand", soda.getBrand())
+                        .bind("max", soda.getMax())
+                        .bind("quantity", soda.getQuantity())
+                        .bind("type", soda.getType().name())
+                        .fetch()
+                        .rowsUpdated()
+                        .then(findById(id)));
+    }
+
+    public Mono<Integer> incrementQuantity(Long id, int quantity) {
+        return databaseClient.sql("UPDATE soda SET quantity = quantity + :quantity, version = version + 1 WHERE id = :id AND quantity + :quantity <= max")
+                .bind("id", id)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> decrementQuantity(Long id, int quantity) {
+        return databaseClient.sql("UPDATE soda SET quantity = quantity - :quantity, version = version + 1 WHERE id = :id AND quantity - :quantity >= 0")
+                .bind("id", id)
+                .bind("quantity", quantity)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM soda WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Soda toSoda(Row row) {
+        Soda soda = new Soda();
+        soda.setId(row.get("id", Long.class));
+        soda.setName(row.get("name", String.class));
+        soda.setBrand(row.get("brand", String.class));
+        soda.setMax(row.get("max", Integer.class));
+        soda.setQuantity(row.get("quantity", Integer.class));
+        soda.setType(SodaType.valueOf(row.get("type", String.class)));
+        soda.setVersion(row.get("version", Long.class));
+        return soda;
+    }
+}
@@ -1,11 +1,60 @@
 package com.juliobalbino.estoquerefrigerante.repository;
 
 import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SodaRepository extends JpaRepository<Soda, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface SodaRepository extends JpaRepository<Soda, Long>, JpaSpecificationExecutor<Soda> {
 
     Optional<Soda> findByName(String name);
+
+    List<Soda> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT s FROM Soda s ORDER BY s.id")
+    Stream<Soda> streamAll();
+
+    @Query("SELECT s.name FROM Soda s WHERE s.name IN :names")
+    List<String> findRegisteredNames(@Param("names") Collection<String> names);
+
+    @Query("SELECT COUNT(s) AS sodas, COALESCE(SUM(s.version), 0) AS versions, COALESCE(MAX(s.id), 0) AS highestId FROM Soda s")
+    CatalogSummary summarizeCatalog();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Soda s SET s.quantity = s.quantity + :quantity, s.version = s.version + 1 WHERE s.id = :id AND s.quantity + :quantity <= s.max")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Soda s SET s.quantity = s.quantity - :quantity, s.version = s.version + 1 WHERE s.id = :id AND s.quantity - :quantity >= 0")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Soda s SET s.quantity = s.quantity + :delta, s.version = s.version + 1 WHERE s.id = :id")
+    int addQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    interface CatalogSummary {
+
+        Long getSodas();
+
+        Long getVersions();
+
+        Long getHighestId();
+    }
 }
@@ -0,0 +1,76 @@
+package com.juliobalbino.estoquerefrigerante.repository;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Search predicates over {@link Soda}. Each one matches a column covered by an index declared on the entity, and the
+ * name prefix becomes a {@code LIKE 'prefix%'} that the unique name index can range-scan.
+ */
+public final class SodaSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private SodaSpecifications() {
+    }
+
+    public static Specification<Soda> matching(SodaSearchCriteriaDTO criteria) {
+        return Specification.where(nameStartsWith(criteria.getNamePrefix()))
+                .and(hasBrand(criteria.getBrand()))
+                .and(hasType(criteria.getType()))
+                .and(quantityBetween(criteria.getMinQuantity(), criteria.getMaxQuantity()))
+                .and(maxBetween(criteria.getMinMax(), criteria.getMaxMax()));
+    }
+
+    public static Specification<Soda> nameStartsWith(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.like(root.get("name"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Soda> hasBrand(String brand) {
+        if (brand == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Soda> hasType(SodaType type) {
+        if (type == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get("type"), type);
+    }
+
+    public static Specification<Soda> quantityBetween(Integer min, Integer max) {
+        return between("quantity", min, max);
+    }
+
+    public static Specification<Soda> maxBetween(Integer min, Integer max) {
+        return between("max", min, max);
+    }
+
+    private static Specification<Soda> between(String attribute, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, builder) -> {
+            if (min == null) {
+                return builder.lessThanOrEqualTo(root.get(attribute), max);
+            }
+            if (max == null) {
+                return builder.greaterThanOrEqualTo(root.get(attribute), min);
+            }
+            return builder.between(root.get(attribute), min, max);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
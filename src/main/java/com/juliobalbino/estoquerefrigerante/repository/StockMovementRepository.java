@@ -0,0 +1,33 @@
+package com.juliobalbino.estoquerefrigerante.repository;
+
+import com.juliobalbino.estoquerefrigerante.entity.StockMovement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    Page<StockMovement> findBySodaIdOrderByOccurredAtDescIdDesc(Long sodaId, Pageable pageable);
+
+    @Query("SELECT m.sodaId AS sodaId, SUM(m.delta) AS delta, MAX(m.occurredAt) AS occurredAt FROM StockMovement m WHERE m.occurredAt < :cutoff GROUP BY m.sodaId")
+    List<MovementSummary> summarizeBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM StockMovement m WHERE m.occurredAt < :cutoff")
+    int deleteOccurredBefore(@Param("cutoff") Instant cutoff);
+
+    interface MovementSummary {
+
+        Long getSodaId();
+
+        Long getDelta();
+
+        Instant getOccurredAt();
+    }
+}
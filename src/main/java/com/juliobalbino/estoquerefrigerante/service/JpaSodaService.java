@@ -0,0 +1,451 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.cache.SodaCache;
+import com.juliobalbino.estoquerefrigerante.concurrency.RetryOnOptimisticLock;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaLockManager;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.entity.StockMovement;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentStatus;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
+import com.juliobalbino.estoquerefrigerante.mapper.StockMovementMapper;
+import com.juliobalbino.estoquerefrigerante.repository.SodaRepository;
+import com.juliobalbino.estoquerefrigerante.repository.SodaSpecifications;
+import com.juliobalbino.estoquerefrigerante.snapshot.SodaSnapshotManager;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * Default {@link SodaService}, backed by JPA and the stock ledger. Replaced by {@link PrimitiveSodaService} under the
+ * {@code kiosk} profile. Changes that touch the write-behind engine enter the {@link SodaChangeGate} first, since the
+ * engine's counters are visible before the transaction commits.
+ */
+@Service
+@Profile("!kiosk")
+@AllArgsConstructor
+public class JpaSodaService implements SodaService {
+
+    private final SodaRepository sodaRepository;
+
+    private final WriteBehindStockEngine writeBehindStockEngine;
+
+    private final EntityManager entityManager;
+
+    private final SodaCache sodaCache;
+
+    private final StockLedger stockLedger;
+
+    private final SodaLockManager sodaLockManager;
+
+    private final SodaChangeGate sodaChangeGate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SodaSnapshotManager sodaSnapshotManager;
+
+    private static final int NAME_LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final int INSERT_BATCH_SIZE = 50;
+
+    private static final int MAX_KEYSET_PAGE_SIZE = 1000;
+
+    private final SodaMapper sodaMapper = SodaMapper.INSTANCE;
+
+    private final StockMovementMapper stockMovementMapper = StockMovementMapper.INSTANCE;
+
+    @Transactional(rollbackFor = Exception.class)
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "create"})
+    public SodaDTO createSoda(SodaDTO sodaDTO) throws SodaAlreadyRegisteredException {
+        verifyIfIsAlreadyRegistered(sodaDTO.getName());
+        Soda soda = sodaMapper.toModel(sodaDTO);
+        Soda savedSoda = sodaRepository.save(soda);
+        stockLedger.record(savedSoda.getId(), savedSoda.getQuantity(), savedSoda.getQuantity(), StockMovementReason.CREATED);
+        if (writeBehindStockEngine.isEnabled()) {
+            sodaChangeGate.enterUntilCompletion();
+            writeBehindStockEngine.register(savedSoda);
+        }
+        SodaDTO savedSodaDTO = sodaMapper.toDTO(savedSoda);
+        eventPublisher.publishEvent(SodaChangedEvent.created(savedSodaDTO));
+        return savedSodaDTO;
+    }
+
+    /**
+     * Registers a whole catalog at once. Name uniqueness is checked for the batch with chunked {@code IN} queries
+     * and the inserts are sent as JDBC batches, flushing and clearing the persistence context after each one so
+     * the heap holds a single batch of entities; ids informed by the client are ignored.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "createBatch"})
+    public List<SodaDTO> createSodas(List<SodaDTO> sodaDTOs) throws SodaAlreadyRegisteredException {
+        verifyIfAreAlreadyRegistered(sodaDTOs);
+        List<SodaDTO> savedSodaDTOs = new ArrayList<>(sodaDTOs.size());
+        for (int from = 0; from < sodaDTOs.size(); from += INSERT_BATCH_SIZE) {
+            List<Soda> sodas = sodaDTOs.subList(from, Math.min(from + INSERT_BATCH_SIZE, sodaDTOs.size()))
+                    .stream()
+                    .map(sodaDTO -> {
+                        Soda soda = sodaMapper.toModel(sodaDTO);
+                        soda.setId(null);
+                        return soda;
+                    })
+                    .collect(Collectors.toList());
+            List<Soda> savedSodas = sodaRepository.saveAll(sodas);
+            stockLedger.recordAll(savedSodas.stream()
+                    .map(savedSoda -> StockLedger.movement(savedSoda.getId(), savedSoda.getQuantity(), savedSoda.getQuantity(), StockMovementReason.CREATED))
+                    .collect(Collectors.toList()));
+            entityManager.flush();
+            entityManager.clear();
+            if (writeBehindStockEngine.isEnabled()) {
+                sodaChangeGate.enterUntilCompletion();
+                savedSodas.forEach(writeBehindStockEngine::register);
+            }
+            savedSodas.stream()
+                    .map(sodaMapper::toDTO)
+                    .forEach(savedSodaDTOs::add);
+        }
+        savedSodaDTOs.forEach(savedSodaDTO -> eventPublisher.publishEvent(SodaChangedEvent.created(savedSodaDTO)));
+        return savedSodaDTOs;
+    }
+
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "findByName"})
+    public SodaDTO findByName(String name) throws SodaNotFoundException {
+        SodaDTO cachedSoda = sodaCache.get(name);
+        if (cachedSoda != null) {
+            return cachedSoda;
+        }
+        long cacheStamp = sodaCache.stamp(name);
+        SodaDTO snapshotSoda = sodaSnapshotManager.findByName(name);
+        if (snapshotSoda != null) {
+            sodaCache.put(snapshotSoda, cacheStamp);
+            return snapshotSoda;
+        }
+        Soda foundSoda = sodaRepository.findByName(name)
+                .orElseThrow(()-> new SodaNotFoundException(name));
+        SodaDTO foundSodaDTO = toDTO(foundSoda);
+        sodaCache.put(foundSodaDTO, cacheStamp);
+        return foundSodaDTO;
+    }
+
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "listAll"})
+    public List<SodaDTO> listAll() {
+        List<SodaDTO> snapshotSodas = new ArrayList<>();
+        if (sodaSnapshotManager.streamAll(snapshotSodas::add)) {
+            return snapshotSodas;
+        }
+        return sodaRepository.findAll()
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "listPage"})
+    public Page<SodaDTO> listPage(Pageable pageable) {
+        return sodaRepository.findAll(pageable)
+                .map(this::toDTO);
+    }
+
+    /**
+     * Filters sodas by the given criteria, pushed down to the database as one indexed query per page. With the
+     * write-behind engine enabled the quantity ranges see the last flushed quantities.
+     */
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "search"})
+    public Page<SodaDTO> search(SodaSearchCriteriaDTO criteria, Pageable pageable) {
+        return sodaRepository.findAll(SodaSpecifications.matching(criteria), pageable)
+                .map(this::toDTO);
+    }
+
+    /**
+     * Keyset pagination: returns up to {@code size} sodas ordered by id, starting right after {@code afterId}.
+     */
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "listAfter"})
+    public List<SodaDTO> listAfter(Long afterId, int size) {
+        Pageable firstPage = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_KEYSET_PAGE_SIZE));
+        return sodaRepository.findByIdGreaterThanOrderByIdAsc(afterId, firstPage)
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Feeds every soda to the consumer while scrolling a database cursor, detaching each entity once it was
+     * consumed so a full export runs in constant heap. Served from the catalog snapshot while it is still current.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "streamAll"})
+    public void streamAll(Consumer<SodaDTO> consumer) {
+        if (sodaSnapshotManager.streamAll(consumer)) {
+            return;
+        }
+        try (Stream<Soda> sodas = sodaRepository.streamAll()) {
+            sodas.forEach(soda -> {
+                consumer.accept(toDTO(soda));
+                entityManager.detach(soda);
+            });
+        }
+    }
+
+    /**
+     * Stock movements of a soda, newest first. The history outlives the soda, so deleted ids can still be audited.
+     */
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "listMovements"})
+    public Page<StockMovementDTO> listMovements(Long id, Pageable pageable) {
+        return stockLedger.history(id, pageable)
+                .map(stockMovementMapper::toDTO);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "delete"})
+    public void deleteById(Long id) throws SodaNotFoundException {
+        Soda sodaToDelete = verifyIfIsExists(id);
+        SodaDTO deletedSoda = toDTO(sodaToDelete);
+        sodaRepository.deleteById(id);
+        if (writeBehindStockEngine.isEnabled()) {
+            sodaChangeGate.enterUntilCompletion();
+            writeBehindStockEngine.remove(id);
+        }
+        eventPublisher.publishEvent(SodaChangedEvent.deleted(deletedSoda));
+    }
+
+
+    private void verifyIfIsAlreadyRegistered(String name) throws SodaAlreadyRegisteredException {
+        Optional<Soda> optSavedSoda = sodaRepository.findByName(name);
+        if (optSavedSoda.isPresent()) {
+            throw new SodaAlreadyRegisteredException(name);
+        }
+    }
+
+    private void verifyIfAreAlreadyRegistered(List<SodaDTO> sodaDTOs) throws SodaAlreadyRegisteredException {
+        Set<String> names = new HashSet<>(sodaDTOs.size());
+        for (SodaDTO sodaDTO : sodaDTOs) {
+            if (!names.add(sodaDTO.getName())) {
+                throw new SodaAlreadyRegisteredException(sodaDTO.getName());
+            }
+        }
+        List<String> pendingNames = new ArrayList<>(names);
+        for (int from = 0; from < pendingNames.size(); from += NAME_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = pendingNames.subList(from, Math.min(from + NAME_LOOKUP_CHUNK_SIZE, pendingNames.size()));
+            List<String> registeredNames = sodaRepository.findRegisteredNames(chunk);
+            if (!registeredNames.isEmpty()) {
+                throw new SodaAlreadyRegisteredException(registeredNames.get(0));
+            }
+        }
+    }
+
+    private Soda verifyIfIsExists(Long id) throws SodaNotFoundException {
+        return sodaRepository.findById(id)
+                .orElseThrow(()-> new SodaNotFoundException(id));
+    }
+
+    @Transactional
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "increment"})
+    public SodaDTO increment(Long id, int quantityToIncrement) throws SodaNotFoundException, SodaStockExceededException {
+        SodaDTO incrementedSoda;
+        if (writeBehindStockEngine.isEnabled()) {
+            sodaChangeGate.enterUntilCompletion();
+            incrementedSoda = writeBehindStockEngine.increment(id, quantityToIncrement);
+        } else {
+            sodaLockManager.lockUntilCompletion(Collections.singleton(id));
+            if (sodaRepository.incrementQuantity(id, quantityToIncrement) == 0) {
+                throw stockUpdateRejected(id, quantityToIncrement);
+            }
+            incrementedSoda = sodaMapper.toDTO(verifyIfIsExists(id));
+            stockLedger.record(id, quantityToIncrement, incrementedSoda.getQuantity(), StockMovementReason.INCREMENT);
+        }
+        eventPublisher.publishEvent(SodaChangedEvent.stockChanged(incrementedSoda, quantityToIncrement));
+        return incrementedSoda;
+    }
+
+    @Transactional
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "decrement"})
+    public SodaDTO decrement(Long id, int quantityToDecrement) throws SodaNotFoundException,  SodaStockExceededException {
+        SodaDTO decrementedSoda;
+        if (writeBehindStockEngine.isEnabled()) {
+            sodaChangeGate.enterUntilCompletion();
+            decrementedSoda = writeBehindStockEngine.decrement(id, quantityToDecrement);
+        } else {
+            sodaLockManager.lockUntilCompletion(Collections.singleton(id));
+            if (sodaRepository.decrementQuantity(id, quantityToDecrement) == 0) {
+                throw stockUpdateRejected(id, quantityToDecrement);
+            }
+            decrementedSoda = sodaMapper.toDTO(verifyIfIsExists(id));
+            stockLedger.record(id, -quantityToDecrement, decrementedSoda.getQuantity(), StockMovementReason.DECREMENT);
+        }
+        eventPublisher.publishEvent(SodaChangedEvent.stockChanged(decrementedSoda, -quantityToDecrement));
+        return decrementedSoda;
+    }
+
+    /**
+     * Applies a list of signed stock deltas in one transaction. In {@link StockAdjustmentMode#ALL_OR_NOTHING} mode
+     * the first rejected entry aborts the whole batch with the same exception the single-item endpoints throw;
+     * in {@link StockAdjustmentMode#BEST_EFFORT} mode rejected entries are reported in their result and skipped.
+     * A concurrent change to one of the sodas is detected through its version and the batch is re-read and
+     * re-applied.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    @RetryOnOptimisticLock(operation = "adjustStock")
+    @Timed(value = SERVICE_METRIC, extraTags = {"operation", "adjustStock"})
+    public List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments, StockAdjustmentMode mode) throws SodaNotFoundException, SodaStockExceededException {
+        return applyAdjustments(adjustments, mode, adjustment -> StockMovementReason.ADJUSTMENT);
+    }
+
+    /**
+     * Applies the deltas {@link StockCoalescer} gathered for increment and decrement calls in one transaction. The
+     * coalescer times each call itself, so the operation keeps no timer of its own.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    @RetryOnOptimisticLock(operation = "applyCoalescedDeltas")
+    public List<StockAdjustmentResultDTO> applyCoalescedDeltas(List<StockAdjustmentDTO> deltas) {
+        try {
+            return applyAdjustments(deltas, StockAdjustmentMode.BEST_EFFORT, JpaSodaService::coalescedReason);
+        } catch (SodaNotFoundException | SodaStockExceededException e) {
+            throw new IllegalStateException("A best-effort adjustment rejected a whole batch", e);
+        }
+    }
+
+    private static StockMovementReason coalescedReason(StockAdjustmentDTO delta) {
+        return delta.getDelta() < 0 ? StockMovementReason.DECREMENT : StockMovementReason.INCREMENT;
+    }
+
+    private List<StockAdjustmentResultDTO> applyAdjustments(List<StockAdjustmentDTO> adjustments,
+                                                            StockAdjustmentMode mode,
+                                                            Function<StockAdjustmentDTO, StockMovementReason> reasons) throws SodaNotFoundException, SodaStockExceededException {
+        List<StockAdjustmentResultDTO> results = writeBehindStockEngine.isEnabled()
+                ? adjustStockInEngine(adjustments, mode, reasons)
+                : adjustStockInRepository(adjustments, mode, reasons);
+        results.stream()
+                .filter(result -> result.getStatus() == StockAdjustmentStatus.APPLIED)
+                .forEach(result -> eventPublisher.publishEvent(SodaChangedEvent.stockChanged(result.getSoda(), result.getDelta())));
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> adjustStockInRepository(List<StockAdjustmentDTO> adjustments,
+                                                                   StockAdjustmentMode mode,
+                                                                   Function<StockAdjustmentDTO, StockMovementReason> reasons) throws SodaNotFoundException, SodaStockExceededException {
+        Set<Long> ids = adjustments.stream()
+                .map(StockAdjustmentDTO::getId)
+                .collect(Collectors.toSet());
+        sodaLockManager.lockUntilCompletion(ids);
+        Map<Long, Soda> sodasById = sodaRepository.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Soda::getId, Function.identity()));
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        List<StockMovement> movements = new ArrayList<>(adjustments.size());
+        for (StockAdjustmentDTO adjustment : adjustments) {
+            Soda soda = sodasById.get(adjustment.getId());
+            if (soda == null) {
+                SodaNotFoundException exception = new SodaNotFoundException(adjustment.getId());
+                if (mode == StockAdjustmentMode.ALL_OR_NOTHING) {
+                    throw exception;
+                }
+                results.add(rejectedAdjustment(adjustment, exception));
+                continue;
+            }
+            int quantityAfterAdjustment = soda.getQuantity() + adjustment.getDelta();
+            if (quantityAfterAdjustment < 0 || quantityAfterAdjustment > soda.getMax()) {
+                SodaStockExceededException exception = new SodaStockExceededException(adjustment.getId(), Math.abs(adjustment.getDelta()));
+                if (mode == StockAdjustmentMode.ALL_OR_NOTHING) {
+                    throw exception;
+                }
+                results.add(rejectedAdjustment(adjustment, exception));
+                continue;
+            }
+            soda.setQuantity(quantityAfterAdjustment);
+            results.add(appliedAdjustment(adjustment, sodaMapper.toDTO(soda)));
+            movements.add(StockLedger.movement(soda.getId(), adjustment.getDelta(), quantityAfterAdjustment, reasons.apply(adjustment)));
+        }
+        sodaRepository.saveAll(sodasById.values());
+        sodaRepository.flush();
+        stockLedger.recordAll(movements);
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> adjustStockInEngine(List<StockAdjustmentDTO> adjustments,
+                                                               StockAdjustmentMode mode,
+                                                               Function<StockAdjustmentDTO, StockMovementReason> reasons) throws SodaNotFoundException, SodaStockExceededException {
+        sodaChangeGate.enterUntilCompletion();
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        List<StockAdjustmentDTO> applied = new ArrayList<>(adjustments.size());
+        for (StockAdjustmentDTO adjustment : adjustments) {
+            try {
+                results.add(appliedAdjustment(adjustment, writeBehindStockEngine.adjust(adjustment.getId(), adjustment.getDelta(), reasons.apply(adjustment))));
+                applied.add(adjustment);
+            } catch (SodaNotFoundException | SodaStockExceededException e) {
+                if (mode == StockAdjustmentMode.ALL_OR_NOTHING) {
+                    Collections.reverse(applied);
+                    applied.forEach(appliedAdjustment -> writeBehindStockEngine.revert(appliedAdjustment.getId(), appliedAdjustment.getDelta()));
+                    throw e;
+                }
+                results.add(rejectedAdjustment(adjustment, e));
+            }
+        }
+        return results;
+    }
+
+    private StockAdjustmentResultDTO rejectedAdjustment(StockAdjustmentDTO adjustment, Exception exception) {
+        StockAdjustmentStatus status = exception instanceof SodaNotFoundException
+                ? StockAdjustmentStatus.NOT_FOUND
+                : StockAdjustmentStatus.STOCK_EXCEEDED;
+        return StockAdjustmentResultDTO.builder()
+                .id(adjustment.getId())
+                .delta(adjustment.getDelta())
+                .status(status)
+                .message(exception.getMessage())
+                .build();
+    }
+
+    private StockAdjustmentResultDTO appliedAdjustment(StockAdjustmentDTO adjustment, SodaDTO sodaDTO) {
+        return StockAdjustmentResultDTO.builder()
+                .id(adjustment.getId())
+                .delta(adjustment.getDelta())
+                .status(StockAdjustmentStatus.APPLIED)
+                .soda(sodaDTO)
+                .build();
+    }
+
+    private SodaDTO toDTO(Soda soda) {
+        SodaDTO sodaDTO = sodaMapper.toDTO(soda);
+        if (writeBehindStockEngine.isEnabled()) {
+            writeBehindStockEngine.overlay(sodaDTO);
+        }
+        return sodaDTO;
+    }
+
+    private SodaStockExceededException stockUpdateRejected(Long id, int quantity) throws SodaNotFoundException {
+        if (!sodaRepository.existsById(id)) {
+            throw new SodaNotFoundException(id);
+        }
+        return new SodaStockExceededException(id, quantity);
+    }
+}
@@ -0,0 +1,125 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.enums.SodaChangeType;
+import com.juliobalbino.estoquerefrigerante.enums.StockAlertType;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.event.StockAlertEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sodas ordered by fill ratio ({@code quantity / max}), kept current from committed {@link SodaChangedEvent}s in
+ * O(log n) per change. A soda crossing {@code soda.stats.low-stock-ratio} publishes a {@link StockAlertEvent}, which
+ * the sinks in the {@code alert} package deliver.
+ */
+@Component
+public class LowStockIndex {
+
+    private static final Comparator<IndexEntry> BY_FILL_RATIO = Comparator
+            .comparingDouble((IndexEntry entry) -> entry.fillRatio)
+            .thenComparingLong(entry -> entry.id);
+
+    private final SodaService sodaService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final double lowStockRatio;
+
+    private final ConcurrentMap<Long, IndexEntry> entriesById = new ConcurrentHashMap<>();
+
+    private final NavigableSet<IndexEntry> entriesByFillRatio = new ConcurrentSkipListSet<>(BY_FILL_RATIO);
+
+    public LowStockIndex(SodaService sodaService,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${soda.stats.low-stock-ratio:0.2}") double lowStockRatio) {
+        this.sodaService = sodaService;
+        this.eventPublisher = eventPublisher;
+        this.lowStockRatio = lowStockRatio;
+    }
+
+    @PostConstruct
+    public void start() {
+        sodaService.streamAll(sodaDTO -> update(sodaDTO, false));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSodaChanged(SodaChangedEvent event) {
+        if (event.getChangeType() == SodaChangeType.DELETED) {
+            remove(event.getSoda().getId());
+        } else {
+            update(event.getSoda(), true);
+        }
+    }
+
+    /**
+     * Sodas at or below the low-stock ratio, emptiest first.
+     */
+    public List<SodaDTO> lowStock(int limit) {
+        List<SodaDTO> lowStockSodas = new ArrayList<>();
+        for (IndexEntry entry : entriesByFillRatio) {
+            if (entry.fillRatio > lowStockRatio || lowStockSodas.size() >= limit) {
+                break;
+            }
+            lowStockSodas.add(entry.soda);
+        }
+        return lowStockSodas;
+    }
+
+    private void update(SodaDTO sodaDTO, boolean publishAlerts) {
+        IndexEntry entry = new IndexEntry(sodaDTO, fillRatioOf(sodaDTO));
+        IndexEntry[] previous = new IndexEntry[1];
+        entriesById.compute(sodaDTO.getId(), (id, current) -> {
+            if (current != null) {
+                entriesByFillRatio.remove(current);
+            }
+            entriesByFillRatio.add(entry);
+            previous[0] = current;
+            return entry;
+        });
+        if (!publishAlerts) {
+            return;
+        }
+        boolean wasLow = previous[0] != null && previous[0].fillRatio <= lowStockRatio;
+        boolean isLow = entry.fillRatio <= lowStockRatio;
+        if (isLow != wasLow) {
+            StockAlertType alertType = isLow ? StockAlertType.LOW_STOCK : StockAlertType.RESTORED;
+            eventPublisher.publishEvent(new StockAlertEvent(alertType, sodaDTO, entry.fillRatio));
+        }
+    }
+
+    private void remove(Long id) {
+        entriesById.computeIfPresent(id, (key, current) -> {
+            entriesByFillRatio.remove(current);
+            return null;
+        });
+    }
+
+    private static double fillRatioOf(SodaDTO sodaDTO) {
+        return sodaDTO.getMax() == 0 ? 0.0 : (double) sodaDTO.getQuantity() / sodaDTO.getMax();
+    }
+
+    private static final class IndexEntry {
+
+        private final long id;
+        private final double fillRatio;
+        private final SodaDTO soda;
+
+        private IndexEntry(SodaDTO soda, double fillRatio) {
+            this.id = soda.getId();
+            this.fillRatio = fillRatio;
+            this.soda = soda;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentStatus;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaSortNotSupportedException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.store.PrimitiveSodaStore;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * {@link SodaService} for the {@code kiosk} profile, holding the catalog in a {@link PrimitiveSodaStore} instead of
+ * the database. Stock changes are lock-free compare-and-set loops on the store; the only allocations left on
+ * increment and decrement are the returned {@link SodaDTO} and the published event. Every change holds the
+ * {@link SodaChangeGate} until its event is published. Listings are in id order unless the pageable is sorted, in
+ * which case every match is collected and sorted before the page is cut. There is no stock ledger in this mode, so
+ * {@link #listMovements(Long, Pageable)} is always empty.
+ */
+@Service
+@Profile("kiosk")
+@AllArgsConstructor
+public class PrimitiveSodaService implements SodaService {
+
+    private static final int MAX_KEYSET_PAGE_SIZE = 1000;
+
+    private static final Map<String, Comparator<SodaDTO>> SORTABLE_PROPERTIES = Map.of(
+            "id", Comparator.comparing(SodaDTO::getId),
+            "name", Comparator.comparing(SodaDTO::getName),
+            "brand", Comparator.comparing(SodaDTO::getBrand),
+            "max", Comparator.comparing(SodaDTO::getMax),
+            "quantity", Comparator.comparing(SodaDTO::getQuantity),
+            "type", Comparator.comparing(sodaDTO -> sodaDTO.getType().name()));
+
+    private final PrimitiveSodaStore sodaStore;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SodaChangeGate sodaChangeGate;
+
+    public SodaDTO createSoda(SodaDTO sodaDTO) throws SodaAlreadyRegisteredException {
+        long stamp = sodaChangeGate.enter();
+        try {
+            SodaDTO savedSodaDTO = create(sodaDTO);
+            eventPublisher.publishEvent(SodaChangedEvent.created(savedSodaDTO));
+            return savedSodaDTO;
+        } finally {
+            sodaChangeGate.exit(stamp);
+        }
+    }
+
+    /**
+     * Registers the sodas one by one and deletes the ones already registered if a name turns out to be taken, so the
+     * batch is all or nothing like in the database-backed service.
+     */
+    public List<SodaDTO> createSodas(List<SodaDTO> sodaDTOs) throws SodaAlreadyRegisteredException {
+        Set<String> names = new HashSet<>(sodaDTOs.size());
+        for (SodaDTO sodaDTO : sodaDTOs) {
+            if (!names.add(sodaDTO.getName()) || sodaStore.idOf(sodaDTO.getName()) != PrimitiveSodaStore.NOT_FOUND) {
+                throw new SodaAlreadyRegisteredException(sodaDTO.getName());
+            }
+        }
+        List<SodaDTO> savedSodaDTOs = new ArrayList<>(sodaDTOs.size());
+        long stamp = sodaChangeGate.enter();
+        try {
+            try {
+                for (SodaDTO sodaDTO : sodaDTOs) {
+                    savedSodaDTOs.add(create(sodaDTO));
+                }
+            } catch (SodaAlreadyRegisteredException | RuntimeException e) {
+                savedSodaDTOs.forEach(savedSodaDTO -> sodaStore.delete(savedSodaDTO.getId()));
+                throw e;
+            }
+            savedSodaDTOs.forEach(savedSodaDTO -> eventPublisher.publishEvent(SodaChangedEvent.created(savedSodaDTO)));
+            return savedSodaDTOs;
+        } finally {
+            sodaChangeGate.exit(stamp);
+        }
+    }
+
+    public SodaDTO findByName(String name) throws SodaNotFoundException {
+        SodaDTO foundSodaDTO = toDTO(sodaStore.idOf(name));
+        if (foundSodaDTO == null) {
+            throw new SodaNotFoundException(name);
+        }
+        return foundSodaDTO;
+    }
+
+    public List<SodaDTO> listAll() {
+        List<SodaDTO> sodaDTOs = new ArrayList<>(sodaStore.size());
+        streamAll(sodaDTOs::add);
+        return sodaDTOs;
+    }
+
+    public Page<SodaDTO> listPage(Pageable pageable) {
+        return page(sodaDTO -> true, pageable);
+    }
+
+    /**
+     * Linear scan of the store; kiosk catalogs are small enough for it to beat maintaining secondary indexes. The
+     * name prefix is case-sensitive, like the database search.
+     */
+    public Page<SodaDTO> search(SodaSearchCriteriaDTO criteria, Pageable pageable) {
+        return page(sodaDTO -> matches(criteria, sodaDTO), pageable);
+    }
+
+    public List<SodaDTO> listAfter(Long afterId, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_KEYSET_PAGE_SIZE);
+        List<SodaDTO> sodaDTOs = new ArrayList<>(Math.min(limit, sodaStore.size()));
+        for (long id = Math.max(afterId, 0) + 1; id <= sodaStore.highestId() && sodaDTOs.size() < limit; id++) {
+            SodaDTO sodaDTO = toDTO(id);
+            if (sodaDTO != null) {
+                sodaDTOs.add(sodaDTO);
+            }
+        }
+        return sodaDTOs;
+    }
+
+    public void streamAll(Consumer<SodaDTO> consumer) {
+        long highestId = sodaStore.highestId();
+        for (long id = 1; id <= highestId; id++) {
+            SodaDTO sodaDTO = toDTO(id);
+            if (sodaDTO != null) {
+                consumer.accept(sodaDTO);
+            }
+        }
+    }
+
+    public Page<StockMovementDTO> listMovements(Long id, Pageable pageable) {
+        return Page.empty(pageable);
+    }
+
+    public void deleteById(Long id) throws SodaNotFoundException {
+        long stamp = sodaChangeGate.enter();
+        try {
+            SodaDTO deletedSoda = toDTO(id);
+            if (deletedSoda == null || !sodaStore.delete(id)) {
+                throw new SodaNotFoundException(id);
+            }
+            eventPublisher.publishEvent(SodaChangedEvent.deleted(deletedSoda));
+        } finally {
+            sodaChangeGate.exit(stamp);
+        }
+    }
+
+    public SodaDTO increment(Long id, int quantityToIncrement) throws SodaNotFoundException, SodaStockExceededException {
+        long stamp = sodaChangeGate.enter();
+        try {
+            SodaDTO incrementedSoda = apply(id, quantityToIncrement, quantityToIncrement);
+            eventPublisher.publishEvent(SodaChangedEvent.stockChanged(incrementedSoda, quantityToIncrement));
+            return incrementedSoda;
+        } finally {
+            sodaChangeGate.exit(stamp);
+        }
+    }
+
+    public SodaDTO decrement(Long id, int quantityToDecrement) throws SodaNotFoundException, SodaStockExceededException {
+        long stamp = sodaChangeGate.enter();
+        try {
+            SodaDTO decrementedSoda = apply(id, -quantityToDecrement, quantityToDecrement);
+            eventPublisher.publishEvent(SodaChangedEvent.stockChanged(decrementedSoda, -quantityToDecrement));
+            return decrementedSoda;
+        } finally {
+            sodaChangeGate.exit(stamp);
+        }
+    }
+
+    public List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments, StockAdjustmentMode mode) throws SodaNotFoundException, SodaStockExceededException {
+        long stamp = sodaChangeGate.enter();
+        try {
+            List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+            List<StockAdjustmentDTO> applied = new ArrayList<>(adjustments.size());
+            for (StockAdjustmentDTO adjustment : adjustments) {
+                try {
+                    SodaDTO adjustedSoda = apply(adjustment.getId(), adjustment.getDelta(), Math.abs(adjustment.getDelta()));
+                    results.add(StockAdjustmentResultDTO.builder()
+                            .id(adjustment.getId())
+                            .delta(adjustment.getDelta())
+                            .status(StockAdjustmentStatus.APPLIED)
+                            .soda(adjustedSoda)
+                            .build());
+                    applied.add(adjustment);
+                } catch (SodaNotFoundException | SodaStockExceededException e) {
+                    if (mode == StockAdjustmentMode.ALL_OR_NOTHING) {
+                        Collections.reverse(applied);
+                        applied.forEach(appliedAdjustment -> sodaStore.revert(appliedAdjustment.getId(), appliedAdjustment.getDelta()));
+                        throw e;
+                    }
+                    results.add(StockAdjustmentResultDTO.builder()
+                            .id(adjustment.getId())
+                            .delta(adjustment.getDelta())
+                            .status(e instanceof SodaNotFoundException ? StockAdjustmentStatus.NOT_FOUND : StockAdjustmentStatus.STOCK_EXCEEDED)
+                            .message(e.getMessage())
+                            .build());
+                }
+            }
+            results.stream()
+                    .filter(result -> result.getStatus() == StockAdjustmentStatus.APPLIED)
+                    .forEach(result -> eventPublisher.publishEvent(SodaChangedEvent.stockChanged(result.getSoda(), result.getDelta())));
+            return results;
+        } finally {
+            sodaChangeGate.exit(stamp);
+        }
+    }
+
+    /**
+     * The kiosk keeps no stock ledger, so coalesced deltas are a plain best-effort adjustment.
+     */
+    public List<StockAdjustmentResultDTO> applyCoalescedDeltas(List<StockAdjustmentDTO> deltas) {
+        try {
+            return adjustStock(deltas, StockAdjustmentMode.BEST_EFFORT);
+        } catch (SodaNotFoundException | SodaStockExceededException e) {
+            throw new IllegalStateException("A best-effort adjustment rejected a whole batch", e);
+        }
+    }
+
+    private SodaDTO create(SodaDTO sodaDTO) throws SodaAlreadyRegisteredException {
+        long id = sodaStore.create(sodaDTO.getName(), sodaDTO.getBrand(), sodaDTO.getMax(), sodaDTO.getQuantity(), sodaDTO.getType());
+        if (id == PrimitiveSodaStore.NOT_FOUND) {
+            throw new SodaAlreadyRegisteredException(sodaDTO.getName());
+        }
+        return new SodaDTO(id, sodaDTO.getName(), sodaDTO.getBrand(), sodaDTO.getMax(), sodaDTO.getQuantity(), sodaDTO.getType());
+    }
+
+    private SodaDTO apply(Long id, int delta, int requestedQuantity) throws SodaNotFoundException, SodaStockExceededException {
+        int quantityAfterUpdate = sodaStore.add(id, delta);
+        if (quantityAfterUpdate == PrimitiveSodaStore.NOT_FOUND) {
+            throw new SodaNotFoundException(id);
+        }
+        if (quantityAfterUpdate == PrimitiveSodaStore.OUT_OF_RANGE) {
+            throw new SodaStockExceededException(id, requestedQuantity);
+        }
+        return toDTO(id, quantityAfterUpdate);
+    }
+
+    private Page<SodaDTO> page(Predicate<SodaDTO> filter, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return sortedPage(filter, pageable);
+        }
+        List<SodaDTO> content = new ArrayList<>();
+        long matches = 0;
+        long highestId = sodaStore.highestId();
+        for (long id = 1; id <= highestId; id++) {
+            SodaDTO sodaDTO = toDTO(id);
+            if (sodaDTO == null || !filter.test(sodaDTO)) {
+                continue;
+            }
+            if (pageable.isUnpaged() || (matches >= pageable.getOffset() && content.size() < pageable.getPageSize())) {
+                content.add(sodaDTO);
+            }
+            matches++;
+        }
+        return new PageImpl<>(content, pageable, matches);
+    }
+
+    private Page<SodaDTO> sortedPage(Predicate<SodaDTO> filter, Pageable pageable) {
+        Comparator<SodaDTO> comparator = comparatorOf(pageable.getSort());
+        List<SodaDTO> matches = new ArrayList<>();
+        streamAll(sodaDTO -> {
+            if (filter.test(sodaDTO)) {
+                matches.add(sodaDTO);
+            }
+        });
+        matches.sort(comparator);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+        int fromIndex = (int) Math.min(pageable.getOffset(), matches.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(fromIndex, toIndex)), pageable, matches.size());
+    }
+
+    /**
+     * Same ordering as the database for the columns it can sort by; ties keep id order because the sort is stable.
+     */
+    private static Comparator<SodaDTO> comparatorOf(Sort sort) {
+        Comparator<SodaDTO> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<SodaDTO> propertyComparator = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (propertyComparator == null) {
+                throw new SodaSortNotSupportedException(order.getProperty());
+            }
+            if (order.isDescending()) {
+                propertyComparator = propertyComparator.reversed();
+            }
+            comparator = comparator == null ? propertyComparator : comparator.thenComparing(propertyComparator);
+        }
+        return comparator;
+    }
+
+    private static boolean matches(SodaSearchCriteriaDTO criteria, SodaDTO sodaDTO) {
+        return (criteria.getNamePrefix() == null || sodaDTO.getName().startsWith(criteria.getNamePrefix()))
+                && (criteria.getBrand() == null || criteria.getBrand().equals(sodaDTO.getBrand()))
+                && (criteria.getType() == null || criteria.getType() == sodaDTO.getType())
+                && within(sodaDTO.getQuantity(), criteria.getMinQuantity(), criteria.getMaxQuantity())
+                && within(sodaDTO.getMax(), criteria.getMinMax(), criteria.getMaxMax());
+    }
+
+    private static boolean within(int value, Integer min, Integer max) {
+        return (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    /**
+     * Current state of the soda, or null when it does not exist.
+     */
+    private SodaDTO toDTO(long id) {
+        int quantity = sodaStore.quantity(id);
+        return quantity < 0 ? null : toDTO(id, quantity);
+    }
+
+    private SodaDTO toDTO(long id, int quantity) {
+        return new SodaDTO(id, sodaStore.name(id), sodaStore.brand(id), sodaStore.max(id), quantity, sodaStore.type(id));
+    }
+}
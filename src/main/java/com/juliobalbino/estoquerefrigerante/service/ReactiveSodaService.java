@@ -0,0 +1,148 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.cache.SodaCache;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
+import com.juliobalbino.estoquerefrigerante.repository.ReactiveSodaRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking variant of {@link SodaService}. Stock changes are the same guarded single-statement updates,
+ * handed to the stock ledger once their R2DBC transaction commits, and the name cache and the write-behind engine
+ * are kept in step with the blocking path. Every change holds the {@link SodaChangeGate} until its event is
+ * published. Not available under the {@code kiosk} profile, whose catalog is not in
+ * the database.
+ */
+@Service
+@Profile("!kiosk")
+@AllArgsConstructor
+public class ReactiveSodaService {
+
+    private final ReactiveSodaRepository reactiveSodaRepository;
+
+    private final WriteBehindStockEngine writeBehindStockEngine;
+
+    private final StockLedger stockLedger;
+
+    private final SodaCache sodaCache;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SodaChangeGate sodaChangeGate;
+
+    private final SodaMapper sodaMapper = SodaMapper.INSTANCE;
+
+    public Mono<SodaDTO> createSoda(SodaDTO sodaDTO) {
+        return guarded(reactiveSodaRepository.findByName(sodaDTO.getName())
+                .flatMap(registeredSoda -> Mono.<Soda>error(new SodaAlreadyRegisteredException(sodaDTO.getName())))
+                .switchIfEmpty(Mono.defer(() -> reactiveSodaRepository.insert(sodaMapper.toModel(sodaDTO))))
+                .as(transactionalOperator::transactional)
+                .map(savedSoda -> {
+                    stockLedger.record(savedSoda.getId(), savedSoda.getQuantity(), savedSoda.getQuantity(), StockMovementReason.CREATED);
+                    if (writeBehindStockEngine.isEnabled()) {
+                        writeBehindStockEngine.register(savedSoda);
+                    }
+                    return sodaMapper.toDTO(savedSoda);
+                })
+                .doOnNext(savedSodaDTO -> eventPublisher.publishEvent(SodaChangedEvent.created(savedSodaDTO))));
+    }
+
+    public Mono<SodaDTO> findByName(String name) {
+        return Mono.justOrEmpty(sodaCache.get(name))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long cacheStamp = sodaCache.stamp(name);
+                    return reactiveSodaRepository.findByName(name)
+                            .map(this::toDTO)
+                            .doOnNext(sodaDTO -> sodaCache.put(sodaDTO, cacheStamp));
+                }))
+                .switchIfEmpty(Mono.error(() -> new SodaNotFoundException(name)));
+    }
+
+    public Flux<SodaDTO> listAll() {
+        return reactiveSodaRepository.findAll()
+                .map(this::toDTO);
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return guarded(reactiveSodaRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new SodaNotFoundException(id)))
+                .flatMap(sodaToDelete -> {
+                    SodaDTO deletedSoda = toDTO(sodaToDelete);
+                    return reactiveSodaRepository.deleteById(id)
+                            .doOnNext(deletedRows -> {
+                                if (writeBehindStockEngine.isEnabled()) {
+                                    writeBehindStockEngine.remove(id);
+                                }
+                                eventPublisher.publishEvent(SodaChangedEvent.deleted(deletedSoda));
+                            });
+                })
+                .then());
+    }
+
+    public Mono<SodaDTO> increment(Long id, int quantityToIncrement) {
+        Mono<SodaDTO> incrementedSoda = writeBehindStockEngine.isEnabled()
+                ? Mono.fromCallable(() -> writeBehindStockEngine.increment(id, quantityToIncrement))
+                : reactiveSodaRepository.incrementQuantity(id, quantityToIncrement)
+                        .flatMap(updatedRows -> afterStockUpdate(id, quantityToIncrement, updatedRows))
+                        .as(transactionalOperator::transactional)
+                        .doOnNext(sodaDTO -> stockLedger.record(id, quantityToIncrement, sodaDTO.getQuantity(), StockMovementReason.INCREMENT));
+        return guarded(incrementedSoda.doOnNext(sodaDTO -> afterStockChange(sodaDTO, quantityToIncrement)));
+    }
+
+    public Mono<SodaDTO> decrement(Long id, int quantityToDecrement) {
+        Mono<SodaDTO> decrementedSoda = writeBehindStockEngine.isEnabled()
+                ? Mono.fromCallable(() -> writeBehindStockEngine.decrement(id, quantityToDecrement))
+                : reactiveSodaRepository.decrementQuantity(id, quantityToDecrement)
+                        .flatMap(updatedRows -> afterStockUpdate(id, -quantityToDecrement, updatedRows))
+                        .as(transactionalOperator::transactional)
+                        .doOnNext(sodaDTO -> stockLedger.record(id, -quantityToDecrement, sodaDTO.getQuantity(), StockMovementReason.DECREMENT));
+        return guarded(decrementedSoda.doOnNext(sodaDTO -> afterStockChange(sodaDTO, -quantityToDecrement)));
+    }
+
+    private Mono<SodaDTO> afterStockUpdate(Long id, int delta, int updatedRows) {
+        Mono<Soda> soda = reactiveSodaRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new SodaNotFoundException(id)));
+        if (updatedRows == 0) {
+            return soda.flatMap(rejectedSoda -> Mono.error(new SodaStockExceededException(id, Math.abs(delta))));
+        }
+        return soda.map(sodaMapper::toDTO);
+    }
+
+    /**
+     * Holds the change gate while the change runs and its event is published. Entering may wait for a recompute,
+     * so it happens on a thread that is allowed to block.
+     */
+    private <T> Mono<T> guarded(Mono<T> change) {
+        return Mono.usingWhen(Mono.fromCallable(sodaChangeGate::enter).subscribeOn(Schedulers.boundedElastic()),
+                stamp -> change,
+                stamp -> Mono.fromRunnable(() -> sodaChangeGate.exit(stamp)));
+    }
+
+    private void afterStockChange(SodaDTO sodaDTO, int quantityDelta) {
+        eventPublisher.publishEvent(SodaChangedEvent.stockChanged(sodaDTO, quantityDelta));
+    }
+
+    private SodaDTO toDTO(Soda soda) {
+        SodaDTO sodaDTO = sodaMapper.toDTO(soda);
+        if (writeBehindStockEngine.isEnabled()) {
+            writeBehindStockEngine.overlay(sodaDTO);
+        }
+        return sodaDTO;
+    }
+}
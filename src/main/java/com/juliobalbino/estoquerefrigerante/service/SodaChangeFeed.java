@@ -0,0 +1,239 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaChangeDTO;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sequence-numbered feed of committed soda changes, served as server-sent events by {@code GET /api/v1/sodas/changes}.
+ * <p>
+ * The last {@code soda.changes.buffer-size} changes are kept in a ring buffer. Appending is the only work done on the
+ * writer's thread: each subscriber keeps its own cursor into the buffer and is drained by the dispatch pool, at most
+ * one task per subscriber at a time, so a slow client only falls behind itself. A subscriber that falls further
+ * behind than the buffer (or resumes from a sequence that is no longer kept) gets a {@code reset} event and should
+ * reload the catalog before applying the changes that follow.
+ * <p>
+ * Event ids are {@code <epoch>-<sequence>} with a random per-process epoch, since sequences start over on restart:
+ * an id from another epoch cannot be compared with this feed's sequences and is answered with a reset.
+ */
+@Slf4j
+@Component
+public class SodaChangeFeed {
+
+    public static final String CHANGE_EVENT = "soda-change";
+
+    public static final String RESET_EVENT = "reset";
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final ChangeBuffer changeBuffer;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService dispatchExecutor;
+
+    public SodaChangeFeed(MeterRegistry meterRegistry,
+                          @Value("${soda.changes.buffer-size:4096}") int bufferSize,
+                          @Value("${soda.changes.dispatch-threads:4}") int dispatchThreads) {
+        this.changeBuffer = new ChangeBuffer(bufferSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "soda-changes-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("soda.changes.subscribers", subscribers, Set::size)
+                .description("Clients subscribed to the soda change feed")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSodaChanged(SodaChangedEvent event) {
+        changeBuffer.append(event);
+        subscribers.forEach(this::scheduleDrain);
+    }
+
+    /**
+     * Subscribes a client that has already seen every change up to the event id {@code lastEventId}; {@code null}
+     * starts from the next change. An id this feed never issued (e.g. from before a restart) starts with a reset.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, resumeCursor(lastEventId));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    public long lastSequence() {
+        return changeBuffer.lastSequence();
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    long resumeCursor(String lastEventId) {
+        long currentSequence = changeBuffer.lastSequence();
+        if (lastEventId == null) {
+            return currentSequence;
+        }
+        String prefix = epoch + "-";
+        if (!lastEventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            long lastSequence = Long.parseLong(lastEventId.substring(prefix.length()));
+            return lastSequence < 0 || lastSequence > currentSequence ? -1 : lastSequence;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatchExecutor.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatchExecutor.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                ChangeBuffer.Slice slice = changeBuffer.readAfter(subscriber.cursor);
+                if (slice.isMissedChanges()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(slice.getFirstSequence() - 1))
+                            .name(RESET_EVENT)
+                            .data(slice.getFirstSequence() - 1));
+                    subscriber.cursor = slice.getFirstSequence() - 1;
+                }
+                for (SodaChangeDTO change : slice.getChanges()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(change.getSequence()))
+                            .name(CHANGE_EVENT)
+                            .data(change));
+                    subscriber.cursor = change.getSequence();
+                }
+                if (slice.getChanges().isEmpty()) {
+                    subscriber.draining.set(false);
+                    // a change appended after the read but before the flag was cleared found the subscriber busy
+                    if (changeBuffer.lastSequence() <= subscriber.cursor || !subscriber.draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping soda change subscriber", e);
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    /**
+     * Fixed-size ring of the most recent changes; sequence {@code n} lives at slot {@code n % capacity}.
+     */
+    static final class ChangeBuffer {
+
+        private final SodaChangeDTO[] changes;
+
+        private long lastSequence;
+
+        ChangeBuffer(int capacity) {
+            this.changes = new SodaChangeDTO[capacity];
+        }
+
+        synchronized long lastSequence() {
+            return lastSequence;
+        }
+
+        synchronized SodaChangeDTO append(SodaChangedEvent event) {
+            SodaChangeDTO change = SodaChangeDTO.builder()
+                    .sequence(++lastSequence)
+                    .changeType(event.getChangeType())
+                    .quantityDelta(event.getQuantityDelta())
+                    .soda(event.getSoda())
+                    .build();
+            changes[(int) (lastSequence % changes.length)] = change;
+            return change;
+        }
+
+        synchronized Slice readAfter(long sequence) {
+            long oldestKept = Math.max(1, lastSequence - changes.length + 1);
+            long first = Math.max(sequence + 1, oldestKept);
+            List<SodaChangeDTO> slice = new ArrayList<>((int) Math.max(0, lastSequence - first + 1));
+            for (long next = first; next <= lastSequence; next++) {
+                slice.add(changes[(int) (next % changes.length)]);
+            }
+            return new Slice(first, first > sequence + 1, slice);
+        }
+
+        static final class Slice {
+
+            private final long firstSequence;
+            private final boolean missedChanges;
+            private final List<SodaChangeDTO> changes;
+
+            private Slice(long firstSequence, boolean missedChanges, List<SodaChangeDTO> changes) {
+                this.firstSequence = firstSequence;
+                this.missedChanges = missedChanges;
+                this.changes = changes;
+            }
+
+            long getFirstSequence() {
+                return firstSequence;
+            }
+
+            boolean isMissedChanges() {
+                return missedChanges;
+            }
+
+            List<SodaChangeDTO> getChanges() {
+                return changes;
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.enums.SodaChangeType;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Case-insensitive prefix lookup over soda names for typeahead, answered from memory without touching the database.
+ * The names are loaded once from {@link SodaService#streamAll}, whichever backend is active.
+ * <p>
+ * Names live in one sorted {@code String[]} searched with a binary search, which costs a single reference per name.
+ * Creations and deletions go to small sorted overlays that are folded into a new array once either holds
+ * {@code soda.suggest.merge-threshold} names, so a burst of creations does not copy the whole array per name. Every
+ * update publishes a new immutable {@link Snapshot}, so readers never lock.
+ */
+@Slf4j
+@Component
+public class SodaNameIndex {
+
+    private static final int MAX_SUGGESTIONS = 100;
+
+    private static final Comparator<String> NAME_ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    private final SodaService sodaService;
+
+    private final int mergeThreshold;
+
+    private final Object updateLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0], Collections.emptySet());
+
+    public SodaNameIndex(SodaService sodaService,
+                         @Value("${soda.suggest.merge-threshold:1024}") int mergeThreshold) {
+        this.sodaService = sodaService;
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        List<String> loadedNames = new ArrayList<>();
+        sodaService.streamAll(sodaDTO -> loadedNames.add(sodaDTO.getName()));
+        String[] names = loadedNames.toArray(new String[0]);
+        Arrays.sort(names, NAME_ORDER);
+        synchronized (updateLock) {
+            snapshot = new Snapshot(names, new String[0], Collections.emptySet());
+        }
+        log.info("Soda name index loaded with {} names", names.length);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSodaChanged(SodaChangedEvent event) {
+        if (event.getChangeType() == SodaChangeType.CREATED) {
+            add(event.getSoda().getName());
+        } else if (event.getChangeType() == SodaChangeType.DELETED) {
+            remove(event.getSoda().getName());
+        }
+    }
+
+    /**
+     * Up to {@code limit} (at most 100) names starting with {@code prefix}, ignoring case, in case-insensitive
+     * alphabetical order.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        limit = Math.min(limit, MAX_SUGGESTIONS);
+        Snapshot current = snapshot;
+        List<String> suggestions = new ArrayList<>(Math.max(Math.min(limit, 16), 0));
+        int baseIndex = lowerBound(current.base, prefix);
+        int addedIndex = lowerBound(current.added, prefix);
+        while (suggestions.size() < limit) {
+            String fromBase = baseIndex < current.base.length ? current.base[baseIndex] : null;
+            String fromAdded = addedIndex < current.added.length ? current.added[addedIndex] : null;
+            String next;
+            if (fromAdded == null || (fromBase != null && NAME_ORDER.compare(fromBase, fromAdded) < 0)) {
+                next = fromBase;
+                baseIndex++;
+            } else {
+                next = fromAdded;
+                addedIndex++;
+            }
+            if (next == null || !next.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                break;
+            }
+            if (!current.removed.contains(next)) {
+                suggestions.add(next);
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current.base.length - current.removed.size() + current.added.length;
+    }
+
+    void add(String name) {
+        synchronized (updateLock) {
+            Snapshot current = snapshot;
+            if (current.removed.contains(name)) {
+                Set<String> removed = new HashSet<>(current.removed);
+                removed.remove(name);
+                snapshot = new Snapshot(current.base, current.added, removed);
+            } else if (Arrays.binarySearch(current.base, name, NAME_ORDER) < 0
+                    && Arrays.binarySearch(current.added, name, NAME_ORDER) < 0) {
+                snapshot = compactIfNeeded(new Snapshot(current.base, insert(current.added, name), current.removed));
+            }
+        }
+    }
+
+    void remove(String name) {
+        synchronized (updateLock) {
+            Snapshot current = snapshot;
+            int addedIndex = Arrays.binarySearch(current.added, name, NAME_ORDER);
+            if (addedIndex >= 0) {
+                snapshot = new Snapshot(current.base, delete(current.added, addedIndex), current.removed);
+            } else if (Arrays.binarySearch(current.base, name, NAME_ORDER) >= 0 && !current.removed.contains(name)) {
+                Set<String> removed = new HashSet<>(current.removed);
+                removed.add(name);
+                snapshot = compactIfNeeded(new Snapshot(current.base, current.added, removed));
+            }
+        }
+    }
+
+    private Snapshot compactIfNeeded(Snapshot candidate) {
+        if (candidate.added.length < mergeThreshold && candidate.removed.size() < mergeThreshold) {
+            return candidate;
+        }
+        String[] merged = new String[candidate.base.length - candidate.removed.size() + candidate.added.length];
+        int baseIndex = 0;
+        int addedIndex = 0;
+        int mergedIndex = 0;
+        while (baseIndex < candidate.base.length || addedIndex < candidate.added.length) {
+            if (addedIndex == candidate.added.length
+                    || (baseIndex < candidate.base.length && NAME_ORDER.compare(candidate.base[baseIndex], candidate.added[addedIndex]) < 0)) {
+                String name = candidate.base[baseIndex++];
+                if (!candidate.removed.contains(name)) {
+                    merged[mergedIndex++] = name;
+                }
+            } else {
+                merged[mergedIndex++] = candidate.added[addedIndex++];
+            }
+        }
+        return new Snapshot(merged, new String[0], Collections.emptySet());
+    }
+
+    private static int lowerBound(String[] names, String prefix) {
+        int low = 0;
+        int high = names.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(names[middle], prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String[] insert(String[] names, String name) {
+        int index = -Arrays.binarySearch(names, name, NAME_ORDER) - 1;
+        String[] inserted = new String[names.length + 1];
+        System.arraycopy(names, 0, inserted, 0, index);
+        inserted[index] = name;
+        System.arraycopy(names, index, inserted, index + 1, names.length - index);
+        return inserted;
+    }
+
+    private static String[] delete(String[] names, int index) {
+        String[] deleted = new String[names.length - 1];
+        System.arraycopy(names, 0, deleted, 0, index);
+        System.arraycopy(names, index + 1, deleted, index, names.length - index - 1);
+        return deleted;
+    }
+
+    private static final class Snapshot {
+
+        private final String[] base;
+        private final String[] added;
+        private final Set<String> removed;
+
+        private Snapshot(String[] base, String[] added, Set<String> removed) {
+            this.base = base;
+            this.added = added;
+            this.removed = removed;
+        }
+    }
+}
@@ -1,85 +1,76 @@
 package com.juliobalbino.estoquerefrigerante.service;
 
 import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
-import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
 import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
 import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
 import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
-import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
-import com.juliobalbino.estoquerefrigerante.repository.SodaRepository;
-import lombok.AllArgsConstructor;
-import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-
-
-@Service
-@AllArgsConstructor
-public class SodaService {
-
-    private final SodaRepository sodaRepository;
-
-    private final SodaMapper sodaMapper = SodaMapper.INSTANCE;
-
-    public SodaDTO createSoda(SodaDTO sodaDTO) throws SodaAlreadyRegisteredException {
-        verifyIfIsAlreadyRegistered(sodaDTO.getName());
-        Soda soda = sodaMapper.toModel(sodaDTO);
-        Soda savedSoda = sodaRepository.save(soda);
-        return sodaMapper.toDTO(savedSoda);
-    }
-
-    public SodaDTO findByName(String name) throws SodaNotFoundException {
-        Soda foundSoda = sodaRepository.findByName(name)
-                .orElseThrow(()-> new SodaNotFoundException(name));
-        return sodaMapper.toDTO(foundSoda);
-    }
-
-    public List<SodaDTO> listAll() {
-        return sodaRepository.findAll()
-                .stream()
-                .map(sodaMapper::toDTO)
-                .collect(Collectors.toList());
-    }
-
-    public void deleteById(Long id) throws SodaNotFoundException {
-        verifyIfIsExists(id);
-        sodaRepository.deleteById(id);
-    }
-
-
-    private void verifyIfIsAlreadyRegistered(String name) throws SodaAlreadyRegisteredException {
-        Optional<Soda> optSavedSoda = sodaRepository.findByName(name);
-        if (optSavedSoda.isPresent()) {
-            throw new SodaAlreadyRegisteredException(name);
-        }
-    }
-
-    private Soda verifyIfIsExists(Long id) throws SodaNotFoundException {
-        return sodaRepository.findById(id)
-                .orElseThrow(()-> new SodaNotFoundException(id));
-    }
-
-    public SodaDTO increment(Long id, int quantityToIncrement) throws SodaNotFoundException, SodaStockExceededException {
-        Soda sodaToIncrementStock = verifyIfIsExists(id);
-        int quantityAfterIncrement = quantityToIncrement + sodaToIncrementStock.getQuantity();
-        if (quantityAfterIncrement <= sodaToIncrementStock.getMax()) {
-            sodaToIncrementStock.setQuantity(sodaToIncrementStock.getQuantity() + quantityToIncrement);
-            Soda incrementedSodaStock = sodaRepository.save(sodaToIncrementStock);
-            return sodaMapper.toDTO(incrementedSodaStock);
-        }
-        throw new SodaStockExceededException(id, quantityToIncrement);
-    }
-
-    public SodaDTO decrement(Long id, int quantityToDecrement) throws SodaNotFoundException,  SodaStockExceededException {
-        Soda sodaToDecrementStock = verifyIfIsExists(id);
-        int sodaStockAfterDecremented = sodaToDecrementStock.getQuantity() - quantityToDecrement;
-        if (sodaStockAfterDecremented >=0 ){
-            sodaToDecrementStock.setQuantity(sodaStockAfterDecremented);
-            Soda decrementedSodaStock = sodaRepository.save(sodaToDecrementStock);
-            return sodaMapper.toDTO(decrementedSodaStock);
-        }
-        throw new SodaStockExceededException(id, quantityToDecrement);
-    }
+import java.util.function.Consumer;
+
+/**
+ * Soda catalog and stock operations. Implementations publish a
+ * {@link com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent} for every creation, deletion and stock change,
+ * which keeps the statistics, indexes and change feed current whichever backend is active.
+ */
+public interface SodaService {
+
+    /**
+     * Name of the timer every stock and catalog operation is recorded under, tagged with its operation.
+     */
+    String SERVICE_METRIC = "soda.service";
+
+    SodaDTO createSoda(SodaDTO sodaDTO) throws SodaAlreadyRegisteredException;
+
+    /**
+     * Registers a whole catalog at once; ids informed by the client are ignored.
+     */
+    List<SodaDTO> createSodas(List<SodaDTO> sodaDTOs) throws SodaAlreadyRegisteredException;
+
+    SodaDTO findByName(String name) throws SodaNotFoundException;
+
+    List<SodaDTO> listAll();
+
+    Page<SodaDTO> listPage(Pageable pageable);
+
+    Page<SodaDTO> search(SodaSearchCriteriaDTO criteria, Pageable pageable);
+
+    /**
+     * Keyset pagination: returns up to {@code size} sodas ordered by id, starting right after {@code afterId}.
+     */
+    List<SodaDTO> listAfter(Long afterId, int size);
+
+    /**
+     * Feeds every soda to the consumer in id order without materializing the whole catalog.
+     */
+    void streamAll(Consumer<SodaDTO> consumer);
+
+    Page<StockMovementDTO> listMovements(Long id, Pageable pageable);
+
+    void deleteById(Long id) throws SodaNotFoundException;
+
+    SodaDTO increment(Long id, int quantityToIncrement) throws SodaNotFoundException, SodaStockExceededException;
+
+    SodaDTO decrement(Long id, int quantityToDecrement) throws SodaNotFoundException, SodaStockExceededException;
+
+    /**
+     * Applies a list of signed stock deltas. In {@link StockAdjustmentMode#ALL_OR_NOTHING} mode the first rejected
+     * entry aborts the whole batch with the same exception the single-item operations throw; in
+     * {@link StockAdjustmentMode#BEST_EFFORT} mode rejected entries are reported in their result and skipped.
+     */
+    List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments, StockAdjustmentMode mode) throws SodaNotFoundException, SodaStockExceededException;
+
+    /**
+     * Applies the increment and decrement deltas {@link StockCoalescer} gathered, like a
+     * {@link StockAdjustmentMode#BEST_EFFORT} adjustment, but recording each movement under the reason of the call
+     * its delta came from: a positive delta is an increment and a negative one a decrement.
+     */
+    List<StockAdjustmentResultDTO> applyCoalescedDeltas(List<StockAdjustmentDTO> deltas);
 }
@@ -0,0 +1,253 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAggregateDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockStatisticsDTO;
+import com.juliobalbino.estoquerefrigerante.enums.SodaChangeType;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Stock aggregates per soda type and per brand, kept up to date from committed {@link SodaChangedEvent}s, so reading
+ * them costs O(types + brands) instead of a catalog scan. {@link #recompute()} rebuilds them from
+ * {@link SodaService#streamAll}, whichever backend is active, reports any drift and replaces the incremental state.
+ * <p>
+ * Every change holds the {@link SodaChangeGate} until its delta is applied: a transactional change from just before
+ * its commit, or from its first write-behind update if that comes earlier, and the reactive and kiosk services around
+ * the whole change. {@code recompute()} scans the catalog with the gate held exclusively, so every change is either
+ * already applied when the scan reads it or made after it, never counted twice or missed.
+ */
+@Slf4j
+@Component
+public class SodaStatistics {
+
+    private static final String DRIFT_METRIC = "soda.stats.drift";
+
+    private static final String STOCK_UNITS_METRIC = "soda.stock.units";
+
+    private final SodaService sodaService;
+
+    private final SodaChangeGate sodaChangeGate;
+
+    private final double lowStockRatio;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter driftCounter;
+
+    private volatile State state;
+
+    public SodaStatistics(SodaService sodaService,
+                          SodaChangeGate sodaChangeGate,
+                          MeterRegistry meterRegistry,
+                          @Value("${soda.stats.low-stock-ratio:0.2}") double lowStockRatio) {
+        this.sodaService = sodaService;
+        this.sodaChangeGate = sodaChangeGate;
+        this.lowStockRatio = lowStockRatio;
+        this.meterRegistry = meterRegistry;
+        this.driftCounter = Counter.builder(DRIFT_METRIC)
+                .description("Recomputations that found the incremental stock statistics out of date")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the aggregates and registers the per-type units gauges. The gauges are registered here rather than by a
+     * {@code MeterBinder}, which would make the meter registry depend on the soda service and so on itself.
+     */
+    @PostConstruct
+    public void start() {
+        state = load();
+        for (SodaType type : SodaType.values()) {
+            Gauge.builder(STOCK_UNITS_METRIC, this, statistics -> statistics.unitsOf(type))
+                    .description("Total units in stock per soda type")
+                    .tag("type", type.name())
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Applies a change once its transaction commits. A change made outside a transaction already holds the gate,
+     * so it is applied right away.
+     */
+    @EventListener
+    public void onSodaChanged(SodaChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new CommitGuard(event));
+            return;
+        }
+        apply(event);
+    }
+
+    public StockStatisticsDTO snapshot() {
+        return state.toDTO();
+    }
+
+    public long unitsOf(SodaType type) {
+        return state.aggregatesByType.get(type).units();
+    }
+
+    /**
+     * Rebuilds the aggregates from a scan of the catalog, which includes pending write-behind deltas, and returns
+     * them.
+     */
+    public StockStatisticsDTO recompute() {
+        return sodaChangeGate.exclusively(() -> {
+            StockStatisticsDTO incremental = state.toDTO();
+            state = load();
+            StockStatisticsDTO recomputed = state.toDTO();
+            if (!recomputed.equals(incremental)) {
+                driftCounter.increment();
+                log.warn("Incremental stock statistics drifted from the database: was {}, recomputed {}", incremental, recomputed);
+            }
+            return recomputed;
+        });
+    }
+
+    private void apply(SodaChangedEvent event) {
+        SodaDTO soda = event.getSoda();
+        SodaChangeType changeType = event.getChangeType();
+        int sodas = changeType == SodaChangeType.CREATED ? 1 : changeType == SodaChangeType.DELETED ? -1 : 0;
+        int lowStockBefore = changeType == SodaChangeType.CREATED ? 0 : lowStock(event.getPreviousQuantity(), soda.getMax());
+        int lowStockAfter = changeType == SodaChangeType.DELETED ? 0 : lowStock(soda.getQuantity(), soda.getMax());
+
+        State current = state;
+        current.aggregatesByType.get(soda.getType())
+                .add(sodas, event.getQuantityDelta(), sodas * soda.getMax(), lowStockAfter - lowStockBefore);
+        current.aggregatesByBrand.computeIfAbsent(soda.getBrand(), brand -> new Aggregate())
+                .add(sodas, event.getQuantityDelta(), sodas * soda.getMax(), lowStockAfter - lowStockBefore);
+    }
+
+    private State load() {
+        Map<SodaType, Aggregate> byType = new EnumMap<>(SodaType.class);
+        for (SodaType type : SodaType.values()) {
+            byType.put(type, new Aggregate());
+        }
+        ConcurrentMap<String, Aggregate> byBrand = new ConcurrentHashMap<>();
+        sodaService.streamAll(soda -> {
+            int lowStock = lowStock(soda.getQuantity(), soda.getMax());
+            byType.get(soda.getType()).add(1, soda.getQuantity(), soda.getMax(), lowStock);
+            byBrand.computeIfAbsent(soda.getBrand(), brand -> new Aggregate())
+                    .add(1, soda.getQuantity(), soda.getMax(), lowStock);
+        });
+        return new State(byType, byBrand);
+    }
+
+    private int lowStock(int quantity, int max) {
+        return quantity <= lowStockRatio * max ? 1 : 0;
+    }
+
+    /**
+     * Keeps a recompute from running between the commit of a change and the application of its delta. It runs
+     * before the synchronization that releases the transaction's pass.
+     */
+    private final class CommitGuard implements TransactionSynchronization {
+
+        private final SodaChangedEvent event;
+
+        private CommitGuard(SodaChangedEvent event) {
+            this.event = event;
+        }
+
+        @Override
+        public int getOrder() {
+            return SodaChangeGate.RELEASE_ORDER - 1;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            sodaChangeGate.enterUntilCompletion();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                apply(event);
+            }
+        }
+    }
+
+    /**
+     * Aggregates by type and by brand, swapped as one reference so readers never mix two recomputations.
+     */
+    private static final class State {
+
+        private final Map<SodaType, Aggregate> aggregatesByType;
+        private final ConcurrentMap<String, Aggregate> aggregatesByBrand;
+
+        private State(Map<SodaType, Aggregate> aggregatesByType, ConcurrentMap<String, Aggregate> aggregatesByBrand) {
+            this.aggregatesByType = aggregatesByType;
+            this.aggregatesByBrand = aggregatesByBrand;
+        }
+
+        private StockStatisticsDTO toDTO() {
+            Aggregate total = new Aggregate();
+            List<StockAggregateDTO> typeDTOs = new ArrayList<>(aggregatesByType.size());
+            aggregatesByType.forEach((type, aggregate) -> {
+                StockAggregateDTO typeDTO = aggregate.toDTO(type.name());
+                total.add(typeDTO.getSodas(), typeDTO.getUnits(), typeDTO.getCapacity(), typeDTO.getLowStock());
+                typeDTOs.add(typeDTO);
+            });
+            List<StockAggregateDTO> brandDTOs = new TreeMap<>(aggregatesByBrand).entrySet()
+                    .stream()
+                    .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                    .filter(brandDTO -> brandDTO.getSodas() > 0)
+                    .collect(Collectors.toList());
+            return StockStatisticsDTO.builder()
+                    .total(total.toDTO(null))
+                    .byType(typeDTOs)
+                    .byBrand(brandDTOs)
+                    .build();
+        }
+    }
+
+    private static final class Aggregate {
+
+        private long sodas;
+        private long units;
+        private long capacity;
+        private long lowStock;
+
+        private synchronized void add(long sodas, long units, long capacity, long lowStock) {
+            this.sodas += sodas;
+            this.units += units;
+            this.capacity += capacity;
+            this.lowStock += lowStock;
+        }
+
+        private synchronized long units() {
+            return units;
+        }
+
+        private synchronized StockAggregateDTO toDTO(String key) {
+            return StockAggregateDTO.builder()
+                    .key(key)
+                    .sodas(sodas)
+                    .units(units)
+                    .capacity(capacity)
+                    .fillRatio(capacity == 0 ? 0.0 : (double) units / capacity)
+                    .lowStock(lowStock)
+                    .build();
+        }
+    }
+}
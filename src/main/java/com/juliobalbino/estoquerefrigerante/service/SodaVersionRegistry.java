@@ -0,0 +1,57 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory versions for conditional GETs. Every committed {@link SodaChangedEvent} advances a catalog-wide counter
+ * and stamps the changed soda's name with it, so entity tags can be produced without reading the database.
+ * <p>
+ * Tags carry a random per-process epoch because the counters start over on restart. Callers must take the tag
+ * <em>before</em> loading the payload: a tag can then only be older than the data it is sent with, which costs a
+ * client one extra full response but never a stale 304.
+ */
+@Component
+public class SodaVersionRegistry {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    private final ConcurrentMap<String, Long> versionsByName = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSodaChanged(SodaChangedEvent event) {
+        long version = catalogVersion.incrementAndGet();
+        versionsByName.merge(event.getSoda().getName(), version, Math::max);
+    }
+
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    public String catalogETag() {
+        return catalogETag(catalogVersion());
+    }
+
+    /**
+     * The tag of a version read earlier with {@link #catalogVersion()}, for callers that also key data by it.
+     */
+    public String catalogETag(long version) {
+        return eTag("catalog", version);
+    }
+
+    public String eTagOf(String name) {
+        return eTag("soda", versionsByName.getOrDefault(name, 0L));
+    }
+
+    private String eTag(String scope, long version) {
+        return "\"" + scope + "-" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,220 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Optional coalescing stage in front of increment and decrement. The first delta for a soda opens a micro-window;
+ * every delta for the same soda arriving within it joins the batch, which is then applied with one
+ * {@link StockAdjustmentMode#BEST_EFFORT} adjustment, so a hot soda costs one database write per window instead of
+ * one per request. Deltas are applied in arrival order, every caller gets its own outcome and its movement keeps the
+ * increment or decrement reason. Each call is timed under the same {@link SodaService#SERVICE_METRIC} tags as the
+ * direct operation, and a delta submitted after shutdown has begun is applied directly instead.
+ */
+@Component
+public class StockCoalescer {
+
+    private static final String BATCH_SIZE_METRIC = "soda.stock.coalesced.batch";
+
+    private final SodaService sodaService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String serviceClassName;
+
+    private final boolean enabled;
+
+    private final long windowNanos;
+
+    private final int flushThreads;
+
+    private final DistributionSummary batchSizeSummary;
+
+    private final ConcurrentMap<Long, List<PendingDelta>> pendingDeltas = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flushExecutor;
+
+    public StockCoalescer(SodaService sodaService,
+                          MeterRegistry meterRegistry,
+                          @Value("${soda.stock.coalescing.enabled:false}") boolean enabled,
+                          @Value("${soda.stock.coalescing.window:2ms}") Duration window,
+                          @Value("${soda.stock.coalescing.flush-threads:4}") int flushThreads) {
+        this.sodaService = sodaService;
+        this.meterRegistry = meterRegistry;
+        this.serviceClassName = AopUtils.getTargetClass(sodaService).getName();
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.flushThreads = flushThreads;
+        this.batchSizeSummary = DistributionSummary.builder(BATCH_SIZE_METRIC)
+                .description("Stock deltas applied by one coalesced write")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        flushExecutor = Executors.newScheduledThreadPool(flushThreads,
+                runnable -> new Thread(runnable, "stock-coalescer-" + threadCount.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    public SodaDTO increment(Long id, int quantityToIncrement) throws SodaNotFoundException, SodaStockExceededException {
+        long startNanos = System.nanoTime();
+        CompletableFuture<SodaDTO> future;
+        try {
+            future = submit(id, quantityToIncrement);
+        } catch (RejectedExecutionException e) {
+            return sodaService.increment(id, quantityToIncrement);
+        }
+        return awaitTimed("increment", startNanos, future);
+    }
+
+    public SodaDTO decrement(Long id, int quantityToDecrement) throws SodaNotFoundException, SodaStockExceededException {
+        long startNanos = System.nanoTime();
+        CompletableFuture<SodaDTO> future;
+        try {
+            future = submit(id, -quantityToDecrement);
+        } catch (RejectedExecutionException e) {
+            return sodaService.decrement(id, quantityToDecrement);
+        }
+        return awaitTimed("decrement", startNanos, future);
+    }
+
+    /**
+     * Queues a delta for the soda's current window.
+     *
+     * @throws RejectedExecutionException when the coalescer is shutting down and can no longer open a window
+     */
+
+    public CompletableFuture<SodaDTO> submit(Long id, int delta) {
+        PendingDelta pendingDelta = new PendingDelta(delta);
+        pendingDeltas.compute(id, (key, batch) -> {
+            if (batch == null) {
+                batch = new ArrayList<>();
+                flushExecutor.schedule(() -> flush(key), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            batch.add(pendingDelta);
+            return batch;
+        });
+        return pendingDelta.future;
+    }
+
+    private void flush(Long id) {
+        List<PendingDelta> batch = pendingDeltas.remove(id);
+        if (batch == null) {
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+        List<StockAdjustmentDTO> adjustments = batch.stream()
+                .map(pendingDelta -> new StockAdjustmentDTO(id, pendingDelta.delta))
+                .collect(Collectors.toList());
+        try {
+            List<StockAdjustmentResultDTO> results = sodaService.applyCoalescedDeltas(adjustments);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(id, results.get(i));
+            }
+        } catch (Exception e) {
+            batch.forEach(pendingDelta -> pendingDelta.future.completeExceptionally(e));
+        }
+    }
+
+    private SodaDTO awaitTimed(String operation, long startNanos, CompletableFuture<SodaDTO> future) throws SodaNotFoundException, SodaStockExceededException {
+        String exception = "none";
+        try {
+            return await(future);
+        } catch (SodaNotFoundException | SodaStockExceededException | RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder(SodaService.SERVICE_METRIC)
+                    .tags("class", serviceClassName, "method", operation, "operation", operation, "exception", exception)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static SodaDTO await(CompletableFuture<SodaDTO> future) throws SodaNotFoundException, SodaStockExceededException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced stock update", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SodaNotFoundException) {
+                throw (SodaNotFoundException) cause;
+            }
+            if (cause instanceof SodaStockExceededException) {
+                throw (SodaStockExceededException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Coalesced stock update failed", cause);
+        }
+    }
+
+    private static final class PendingDelta {
+
+        private final int delta;
+        private final CompletableFuture<SodaDTO> future = new CompletableFuture<>();
+
+        private PendingDelta(int delta) {
+            this.delta = delta;
+        }
+
+        private void complete(Long id, StockAdjustmentResultDTO result) {
+            switch (result.getStatus()) {
+                case APPLIED:
+                    future.complete(result.getSoda());
+                    break;
+                case NOT_FOUND:
+                    future.completeExceptionally(new SodaNotFoundException(id));
+                    break;
+                default:
+                    future.completeExceptionally(new SodaStockExceededException(id, Math.abs(delta)));
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.entity.StockMovement;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.repository.StockMovementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of stock movements. Every accepted stock change is recorded together with the quantity it left,
+ * so the history of a soda can be replayed for audits. Movements older than the retention window are periodically
+ * folded into one {@link StockMovementReason#SNAPSHOT} movement per soda carrying their summed delta, which keeps
+ * the log of a soda as a snapshot plus a tail whose deltas always add up to its quantity.
+ * <p>
+ * Recording stays off the stock write path: movements are queued once the transaction that produced them commits
+ * (straight away outside a transaction) and inserted in batches by a background appender every
+ * {@code soda.stock.ledger.append-interval}. A rolled back change therefore never reaches the log, and
+ * {@link #history(Long, Pageable)} appends what is queued before reading. Movements still queued when the process
+ * dies are lost; {@code Soda.quantity} remains the authoritative stock.
+ */
+@Slf4j
+@Component
+public class StockLedger {
+
+    private static final int APPEND_BATCH_SIZE = 500;
+
+    private final StockMovementRepository stockMovementRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate appendTransactionTemplate;
+
+    private final Duration retention;
+
+    private final Duration compactionInterval;
+
+    private final Duration appendInterval;
+
+    private final BlockingQueue<StockMovement> pendingMovements;
+
+    private ScheduledExecutorService compactionExecutor;
+
+    private ScheduledExecutorService appendExecutor;
+
+    public StockLedger(StockMovementRepository stockMovementRepository,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${soda.stock.ledger.retention:30d}") Duration retention,
+                       @Value("${soda.stock.ledger.compaction-interval:1h}") Duration compactionInterval,
+                       @Value("${soda.stock.ledger.append-interval:200ms}") Duration appendInterval,
+                       @Value("${soda.stock.ledger.queue-capacity:100000}") int queueCapacity) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.transactionTemplate = transactionTemplate;
+        // appends may run from afterCommit callbacks, where joining the finished transaction would never commit
+        this.appendTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.appendTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retention = retention;
+        this.compactionInterval = compactionInterval;
+        this.appendInterval = appendInterval;
+        this.pendingMovements = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    public static StockMovement movement(Long sodaId, int delta, int quantityAfter, StockMovementReason reason) {
+        return new StockMovement(null, sodaId, delta, quantityAfter, reason, Instant.now());
+    }
+
+    @PostConstruct
+    public void start() {
+        long intervalMs = compactionInterval.toMillis();
+        compactionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "stock-ledger-compaction"));
+        compactionExecutor.scheduleWithFixedDelay(this::compactQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        long appendIntervalMs = appendInterval.toMillis();
+        appendExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "stock-ledger-appender"));
+        appendExecutor.scheduleWithFixedDelay(this::appendQuietly, appendIntervalMs, appendIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        compactionExecutor.shutdownNow();
+        appendExecutor.shutdown();
+        try {
+            appendExecutor.awaitTermination(appendInterval.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appendQuietly();
+    }
+
+    public void record(Long sodaId, int delta, int quantityAfter, StockMovementReason reason) {
+        recordAll(Collections.singletonList(movement(sodaId, delta, quantityAfter, reason)));
+    }
+
+    public void recordAll(Collection<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(movements);
+            return;
+        }
+        List<StockMovement> committedMovements = new ArrayList<>(movements);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(committedMovements);
+            }
+        });
+    }
+
+    public Page<StockMovement> history(Long sodaId, Pageable pageable) {
+        append();
+        return stockMovementRepository.findBySodaIdOrderByOccurredAtDescIdDesc(sodaId, pageable);
+    }
+
+    /**
+     * Inserts every queued movement and returns how many were appended.
+     */
+    public synchronized int append() {
+        int appended = 0;
+        while (!pendingMovements.isEmpty()) {
+            List<StockMovement> batch = new ArrayList<>(APPEND_BATCH_SIZE);
+            pendingMovements.drainTo(batch, APPEND_BATCH_SIZE);
+            try {
+                appendTransactionTemplate.executeWithoutResult(status -> stockMovementRepository.saveAll(batch));
+            } catch (RuntimeException e) {
+                // keep the batch for the next run rather than dropping audit history
+                batch.forEach(pendingMovements::offer);
+                throw e;
+            }
+            appended += batch.size();
+        }
+        return appended;
+    }
+
+    /**
+     * Queues the movements, appending them on the caller's thread only when the queue is full so that a stalled
+     * appender slows stock writes down instead of losing movements.
+     */
+    private void enqueue(Collection<StockMovement> movements) {
+        for (StockMovement movement : movements) {
+            if (!pendingMovements.offer(movement)) {
+                append();
+                if (!pendingMovements.offer(movement)) {
+                    appendTransactionTemplate.executeWithoutResult(status -> stockMovementRepository.save(movement));
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces every movement older than the retention window by a snapshot per soda and returns how many
+     * movements were folded.
+     */
+    public int compact() {
+        Instant cutoff = Instant.now().minus(retention);
+        Integer compacted = transactionTemplate.execute(status -> {
+            List<StockMovement> snapshots = stockMovementRepository.summarizeBefore(cutoff)
+                    .stream()
+                    .map(summary -> new StockMovement(null,
+                            summary.getSodaId(),
+                            summary.getDelta().intValue(),
+                            summary.getDelta().intValue(),
+                            StockMovementReason.SNAPSHOT,
+                            summary.getOccurredAt()))
+                    .collect(Collectors.toList());
+            if (snapshots.isEmpty()) {
+                return 0;
+            }
+            int deletedMovements = stockMovementRepository.deleteOccurredBefore(cutoff);
+            stockMovementRepository.saveAll(snapshots);
+            return deletedMovements;
+        });
+        return compacted == null ? 0 : compacted;
+    }
+
+    private void appendQuietly() {
+        try {
+            append();
+        } catch (RuntimeException e) {
+            log.warn("Appending stock movements failed, they will be retried on the next run", e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            int compacted = compact();
+            if (compacted > 0) {
+                log.info("Folded {} stock movements older than {} into snapshots", compacted, retention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stock ledger compaction failed, it will be retried on the next run", e);
+        }
+    }
+}
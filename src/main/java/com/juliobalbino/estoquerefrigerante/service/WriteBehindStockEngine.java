@@ -0,0 +1,271 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.entity.StockMovement;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.repository.SodaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-memory stock engine. When enabled it becomes the source of truth for soda quantities:
+ * increments and decrements are applied to lock-free counters that enforce {@code max} and the zero floor,
+ * and the accumulated deltas are written to the database in batches, either every flush interval or as soon
+ * as the number of dirty sodas reaches the configured threshold. The matching stock movements are queued and
+ * handed to the {@link StockLedger} when the flush transaction commits.
+ */
+@Slf4j
+@Component
+public class WriteBehindStockEngine {
+
+    private final SodaRepository sodaRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final StockLedger stockLedger;
+
+    private final boolean enabled;
+
+    private final long flushIntervalMs;
+
+    private final int dirtyThreshold;
+
+    private final ConcurrentMap<Long, StockCounter> counters = new ConcurrentHashMap<>();
+
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+
+    private final Queue<StockMovement> pendingMovements = new ConcurrentLinkedQueue<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private ScheduledExecutorService flushExecutor;
+
+    public WriteBehindStockEngine(SodaRepository sodaRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  StockLedger stockLedger,
+                                  @Value("${soda.stock.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${soda.stock.write-behind.flush-interval-ms:1000}") long flushIntervalMs,
+                                  @Value("${soda.stock.write-behind.dirty-threshold:500}") int dirtyThreshold) {
+        this.sodaRepository = sodaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.stockLedger = stockLedger;
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.dirtyThreshold = dirtyThreshold;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        sodaRepository.findAll().forEach(this::register);
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "stock-write-behind"));
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Write-behind stock engine warmed with {} sodas", counters.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    public void register(Soda soda) {
+        counters.put(soda.getId(), new StockCounter(soda));
+    }
+
+    public void remove(Long id) {
+        counters.remove(id);
+        dirtyIds.remove(id);
+    }
+
+    public SodaDTO increment(Long id, int quantityToIncrement) throws SodaNotFoundException, SodaStockExceededException {
+        return apply(id, quantityToIncrement, quantityToIncrement, StockMovementReason.INCREMENT);
+    }
+
+    public SodaDTO decrement(Long id, int quantityToDecrement) throws SodaNotFoundException, SodaStockExceededException {
+        return apply(id, -quantityToDecrement, quantityToDecrement, StockMovementReason.DECREMENT);
+    }
+
+    public SodaDTO adjust(Long id, int delta, StockMovementReason reason) throws SodaNotFoundException, SodaStockExceededException {
+        return apply(id, delta, Math.abs(delta), reason);
+    }
+
+    /**
+     * Undoes a delta previously applied by {@link #adjust(Long, int, StockMovementReason)}, without re-checking the stock bounds.
+     */
+    public void revert(Long id, int delta) {
+        StockCounter counter = counters.get(id);
+        if (counter != null) {
+            int quantityAfterRevert = counter.quantity.addAndGet(-delta);
+            counter.pendingDelta.addAndGet(-delta);
+            dirtyIds.add(id);
+            pendingMovements.add(StockLedger.movement(id, -delta, quantityAfterRevert, StockMovementReason.REVERSAL));
+        }
+    }
+
+    public void overlay(SodaDTO sodaDTO) {
+        StockCounter counter = counters.get(sodaDTO.getId());
+        if (counter != null) {
+            sodaDTO.setQuantity(counter.quantity.get());
+        }
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            Map<Long, Integer> deltas = drainPendingDeltas();
+            List<StockMovement> movements = drainPendingMovements();
+            if (deltas.isEmpty() && movements.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    deltas.forEach(sodaRepository::addQuantity);
+                    stockLedger.recordAll(movements);
+                });
+            } catch (RuntimeException e) {
+                deltas.forEach(this::restorePendingDelta);
+                pendingMovements.addAll(movements);
+                throw e;
+            }
+            log.debug("Flushed stock deltas for {} sodas", deltas.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private SodaDTO apply(Long id, int delta, int requestedQuantity, StockMovementReason reason) throws SodaNotFoundException, SodaStockExceededException {
+        StockCounter counter = counters.get(id);
+        if (counter == null) {
+            throw new SodaNotFoundException(id);
+        }
+        int quantityAfterUpdate = counter.apply(delta);
+        if (quantityAfterUpdate < 0) {
+            throw new SodaStockExceededException(id, requestedQuantity);
+        }
+        dirtyIds.add(id);
+        pendingMovements.add(StockLedger.movement(id, delta, quantityAfterUpdate, reason));
+        if (dirtyIds.size() >= dirtyThreshold && !flushExecutor.isShutdown() && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flushQuietly);
+        }
+        return counter.toDTO(quantityAfterUpdate);
+    }
+
+    private Map<Long, Integer> drainPendingDeltas() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Long id : dirtyIds) {
+            dirtyIds.remove(id);
+            StockCounter counter = counters.get(id);
+            if (counter != null) {
+                int delta = counter.pendingDelta.getAndSet(0);
+                if (delta != 0) {
+                    deltas.put(id, delta);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    private List<StockMovement> drainPendingMovements() {
+        List<StockMovement> movements = new ArrayList<>();
+        StockMovement movement;
+        while ((movement = pendingMovements.poll()) != null) {
+            movements.add(movement);
+        }
+        return movements;
+    }
+
+    private void restorePendingDelta(Long id, int delta) {
+        StockCounter counter = counters.get(id);
+        if (counter != null) {
+            counter.pendingDelta.addAndGet(delta);
+            dirtyIds.add(id);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Stock write-behind flush failed, deltas kept for the next attempt", e);
+        }
+    }
+
+    private static final class StockCounter {
+
+        private final Long id;
+        private final String name;
+        private final String brand;
+        private final int max;
+        private final SodaType type;
+        private final AtomicInteger quantity;
+        private final AtomicInteger pendingDelta = new AtomicInteger();
+
+        private StockCounter(Soda soda) {
+            this.id = soda.getId();
+            this.name = soda.getName();
+            this.brand = soda.getBrand();
+            this.max = soda.getMax();
+            this.type = soda.getType();
+            this.quantity = new AtomicInteger(soda.getQuantity());
+        }
+
+        /**
+         * Returns the quantity after applying the delta, or -1 when it would leave the [0, max] range.
+         */
+        private int apply(int delta) {
+            while (true) {
+                int current = quantity.get();
+                int next = current + delta;
+                if (next < 0 || next > max) {
+                    return -1;
+                }
+                if (quantity.compareAndSet(current, next)) {
+                    pendingDelta.addAndGet(delta);
+                    return next;
+                }
+            }
+        }
+
+        private SodaDTO toDTO(int currentQuantity) {
+            return new SodaDTO(id, name, brand, max, currentQuantity, type);
+        }
+    }
+}
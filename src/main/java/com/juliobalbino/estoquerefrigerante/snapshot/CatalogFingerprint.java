@@ -0,0 +1,23 @@
+package com.juliobalbino.estoquerefrigerante.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Cheap summary of the soda table: row count, sum of the optimistic-lock versions and highest id. Every creation,
+ * deletion and stock update changes at least one of them.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class CatalogFingerprint {
+
+    private final long sodas;
+
+    private final long versions;
+
+    private final long highestId;
+}
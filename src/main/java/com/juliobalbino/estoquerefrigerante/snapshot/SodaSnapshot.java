@@ -0,0 +1,231 @@
+package com.juliobalbino.estoquerefrigerante.snapshot;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only, memory-mapped image of the soda table.
+ * <p>
+ * Layout (big-endian): a {@value #HEADER_SIZE}-byte header, then one {@value #RECORD_SIZE}-byte record per soda in
+ * id order, then the record numbers sorted by name, then a string table with the UTF-8 names and the deduplicated
+ * brands. A record holds the id, max, quantity, type ordinal and the offsets and lengths of its strings in the
+ * table. The header carries the {@link CatalogFingerprint} of the rows the snapshot was written from, so a snapshot
+ * is only used while the database still matches it.
+ */
+public final class SodaSnapshot implements AutoCloseable {
+
+    static final int HEADER_SIZE = 64;
+
+    static final int RECORD_SIZE = 32;
+
+    private static final long MAGIC = 0x534F44415F534E50L;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final SodaType[] SODA_TYPES = SodaType.values();
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final int recordCount;
+
+    private final CatalogFingerprint fingerprint;
+
+    private final int nameIndexOffset;
+
+    private final int stringTableOffset;
+
+    private SodaSnapshot(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getLong(0) != MAGIC || buffer.getInt(8) != FORMAT_VERSION) {
+            throw new IOException("Not a soda snapshot in a supported format");
+        }
+        this.recordCount = buffer.getInt(12);
+        this.fingerprint = new CatalogFingerprint(buffer.getLong(24), buffer.getLong(32), buffer.getLong(40));
+        this.nameIndexOffset = (int) buffer.getLong(48);
+        this.stringTableOffset = (int) buffer.getLong(56);
+        if (nameIndexOffset != HEADER_SIZE + (long) recordCount * RECORD_SIZE
+                || stringTableOffset != nameIndexOffset + (long) recordCount * Integer.BYTES
+                || stringTableOffset > buffer.capacity()) {
+            throw new IOException("Truncated or inconsistent soda snapshot");
+        }
+    }
+
+    /**
+     * Maps an existing snapshot file.
+     */
+    public static SodaSnapshot open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new SodaSnapshot(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the sodas, which must come in id order, to a temporary file that then atomically replaces
+     * {@code path}, and returns the fingerprint of what was written.
+     */
+    public static CatalogFingerprint write(Path path, Iterator<Soda> sodas) throws IOException {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        List<String> names = new ArrayList<>();
+        ByteArrayOutputStream stringTable = new ByteArrayOutputStream();
+        Map<String, long[]> brandEntries = new HashMap<>();
+        long versions = 0;
+        long highestId = 0;
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            channel.position(HEADER_SIZE);
+            while (sodas.hasNext()) {
+                Soda soda = sodas.next();
+                byte[] name = soda.getName().getBytes(StandardCharsets.UTF_8);
+                int nameOffset = stringTable.size();
+                stringTable.write(name);
+                long[] brand = brandEntries.computeIfAbsent(soda.getBrand(), key -> {
+                    byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+                    long[] entry = {stringTable.size(), bytes.length};
+                    stringTable.write(bytes, 0, bytes.length);
+                    return entry;
+                });
+                record.clear();
+                record.putLong(soda.getId())
+                        .putInt(soda.getMax())
+                        .putInt(soda.getQuantity())
+                        .putInt(nameOffset)
+                        .putInt((int) brand[0])
+                        .putShort((short) name.length)
+                        .putShort((short) brand[1])
+                        .put((byte) soda.getType().ordinal());
+                record.position(RECORD_SIZE).flip();
+                writeFully(channel, record);
+                names.add(soda.getName());
+                versions += soda.getVersion();
+                highestId = Math.max(highestId, soda.getId());
+            }
+            int recordCount = names.size();
+            ByteBuffer nameIndex = ByteBuffer.allocate(recordCount * Integer.BYTES);
+            IntStream.range(0, recordCount)
+                    .boxed()
+                    .sorted(Comparator.comparing(names::get))
+                    .forEach(nameIndex::putInt);
+            writeFully(channel, nameIndex.flip());
+            writeFully(channel, ByteBuffer.wrap(stringTable.toByteArray()));
+
+            CatalogFingerprint fingerprint = new CatalogFingerprint(recordCount, versions, highestId);
+            long nameIndexOffset = HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putLong(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(recordCount)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(fingerprint.getSodas())
+                    .putLong(fingerprint.getVersions())
+                    .putLong(fingerprint.getHighestId())
+                    .putLong(nameIndexOffset)
+                    .putLong(nameIndexOffset + (long) recordCount * Integer.BYTES);
+            channel.position(0);
+            writeFully(channel, header.flip());
+            channel.force(true);
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return fingerprint;
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    public CatalogFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Binary search over the name index; returns null when the name is not in the snapshot.
+     */
+    public SodaDTO findByName(String name) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int record = buffer.getInt(nameIndexOffset + middle * Integer.BYTES);
+            int comparison = nameOf(record).compareTo(name);
+            if (comparison == 0) {
+                return toDTO(record);
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Feeds every soda to the consumer in id order.
+     */
+    public void forEach(Consumer<SodaDTO> consumer) {
+        for (int record = 0; record < recordCount; record++) {
+            consumer.accept(toDTO(record));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private SodaDTO toDTO(int record) {
+        int offset = HEADER_SIZE + record * RECORD_SIZE;
+        return new SodaDTO(buffer.getLong(offset),
+                nameOf(record),
+                string(buffer.getInt(offset + 20), buffer.getShort(offset + 26)),
+                buffer.getInt(offset + 8),
+                buffer.getInt(offset + 12),
+                SODA_TYPES[buffer.get(offset + 28)]);
+    }
+
+    private String nameOf(int record) {
+        int offset = HEADER_SIZE + record * RECORD_SIZE;
+        return string(buffer.getInt(offset + 16), buffer.getShort(offset + 24));
+    }
+
+    private String string(int tableOffset, short length) {
+        byte[] bytes = new byte[length];
+        buffer.get(stringTableOffset + tableOffset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
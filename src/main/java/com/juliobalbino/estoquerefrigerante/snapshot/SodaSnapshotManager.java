@@ -0,0 +1,200 @@
+package com.juliobalbino.estoquerefrigerante.snapshot;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.repository.SodaRepository;
+import com.juliobalbino.estoquerefrigerante.repository.SodaRepository.CatalogSummary;
+import com.juliobalbino.estoquerefrigerante.service.WriteBehindStockEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Warm start from a {@link SodaSnapshot}. At startup the snapshot file is memory-mapped and, if its fingerprint
+ * still matches the soda table, {@code findByName} and full listings are answered from it without loading any
+ * entity. A soda stops being served from the snapshot as soon as a change to it is published, and full listings
+ * stop as soon as anything changes. The snapshot is rewritten every {@code soda.snapshot.interval} and at shutdown.
+ */
+@Slf4j
+@Component
+public class SodaSnapshotManager {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final SodaRepository sodaRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final WriteBehindStockEngine writeBehindStockEngine;
+
+    private final boolean enabled;
+
+    private final Path path;
+
+    private final Duration interval;
+
+    private final Set<String> changedNames = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean catalogChanged;
+
+    private volatile SodaSnapshot snapshot;
+
+    private ScheduledExecutorService snapshotExecutor;
+
+    public SodaSnapshotManager(SodaRepository sodaRepository,
+                               EntityManager entityManager,
+                               TransactionTemplate transactionTemplate,
+                               WriteBehindStockEngine writeBehindStockEngine,
+                               @Value("${soda.snapshot.enabled:false}") boolean enabled,
+                               @Value("${soda.snapshot.path:./data/soda.snapshot}") Path path,
+                               @Value("${soda.snapshot.interval:5m}") Duration interval) {
+        this.sodaRepository = sodaRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.writeBehindStockEngine = writeBehindStockEngine;
+        this.enabled = enabled;
+        this.path = path;
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        if (Files.exists(path)) {
+            load();
+        }
+        long intervalMs = interval.toMillis();
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "soda-snapshot"));
+        snapshotExecutor.scheduleWithFixedDelay(this::writeQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        // let a scheduled write in progress finish: it shares the temporary file with the final one
+        snapshotExecutor.shutdown();
+        try {
+            if (!snapshotExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Scheduled soda snapshot write still running after {}s", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write();
+        if (snapshot != null) {
+            snapshot.close();
+        }
+    }
+
+    /**
+     * Marks the soda as changed before the change commits, so the snapshot never answers for it afterwards.
+     */
+    @EventListener
+    public void onSodaChanged(SodaChangedEvent event) {
+        catalogChanged = true;
+        changedNames.add(event.getSoda().getName());
+    }
+
+    public boolean isServing() {
+        return snapshot != null;
+    }
+
+    /**
+     * The soda as of the snapshot, or null when it must be read from the database.
+     */
+    public SodaDTO findByName(String name) {
+        SodaSnapshot current = snapshot;
+        if (current == null || changedNames.contains(name)) {
+            return null;
+        }
+        return current.findByName(name);
+    }
+
+    /**
+     * Feeds the whole catalog from the snapshot and returns true, or returns false without calling the consumer
+     * when the catalog changed since startup.
+     */
+    public boolean streamAll(Consumer<SodaDTO> consumer) {
+        SodaSnapshot current = snapshot;
+        if (current == null || catalogChanged) {
+            return false;
+        }
+        current.forEach(consumer);
+        return true;
+    }
+
+    /**
+     * Writes the current soda table to the snapshot file, after flushing any pending write-behind deltas. Writes are
+     * serialized because they all go through the same temporary file.
+     */
+    public synchronized CatalogFingerprint write() throws IOException {
+        if (writeBehindStockEngine.isEnabled()) {
+            writeBehindStockEngine.flush();
+        }
+        try {
+            CatalogFingerprint fingerprint = readOnlyTransactionTemplate.execute(status -> {
+                try (Stream<Soda> sodas = sodaRepository.streamAll()) {
+                    return SodaSnapshot.write(path, sodas.peek(entityManager::detach).iterator());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Wrote soda snapshot {}", fingerprint);
+            return fingerprint;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void load() {
+        try {
+            SodaSnapshot loadedSnapshot = SodaSnapshot.open(path);
+            CatalogSummary summary = sodaRepository.summarizeCatalog();
+            CatalogFingerprint databaseFingerprint = new CatalogFingerprint(summary.getSodas(), summary.getVersions(), summary.getHighestId());
+            if (loadedSnapshot.getFingerprint().equals(databaseFingerprint)) {
+                snapshot = loadedSnapshot;
+                log.info("Serving {} sodas from snapshot {}", loadedSnapshot.size(), path);
+            } else {
+                loadedSnapshot.close();
+                log.info("Ignoring stale soda snapshot {}: {} on file, {} in the database", path, loadedSnapshot.getFingerprint(), databaseFingerprint);
+            }
+        } catch (IOException e) {
+            log.warn("Could not load soda snapshot {}", path, e);
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Soda snapshot write failed, keeping the previous one", e);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.juliobalbino.estoquerefrigerante.store;
+
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fixed-capacity soda catalog in parallel primitive arrays, for the {@code kiosk} profile. Soda {@code id}s are dense:
+ * soda {@code n} lives in slot {@code n - 1} of every array, and ids of deleted sodas are not reused.
+ * <p>
+ * Quantities are an {@link AtomicIntegerArray} changed with compare-and-set loops, so {@link #add(long, int)} neither
+ * locks nor allocates. A slot is published by the volatile write of its quantity after its other columns were set,
+ * and a negative quantity marks a free or deleted slot. Names map to ids through an open-addressing table guarded by
+ * a {@link StampedLock}, read optimistically. Creations and deletions are serialized on the store.
+ */
+@Component
+@Profile("kiosk")
+public class PrimitiveSodaStore {
+
+    public static final int NOT_FOUND = -1;
+
+    public static final int OUT_OF_RANGE = -2;
+
+    private static final int ABSENT = -1;
+
+    private static final SodaType[] SODA_TYPES = SodaType.values();
+
+    private static final String TOMBSTONE = new String("");
+
+    private final int capacity;
+
+    private final AtomicIntegerArray quantities;
+
+    private final int[] maxes;
+
+    private final byte[] types;
+
+    private final String[] names;
+
+    private final String[] brands;
+
+    private final Map<String, String> internedBrands = new HashMap<>();
+
+    private final StampedLock nameLock = new StampedLock();
+
+    private final String[] nameKeys;
+
+    private final int[] nameIds;
+
+    private volatile int highestId;
+
+    private volatile int size;
+
+    public PrimitiveSodaStore(@Value("${soda.kiosk.capacity:4096}") int capacity) {
+        this.capacity = capacity;
+        this.quantities = new AtomicIntegerArray(capacity);
+        this.maxes = new int[capacity];
+        this.types = new byte[capacity];
+        this.names = new String[capacity];
+        this.brands = new String[capacity];
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) << 1;
+        this.nameKeys = new String[tableSize];
+        this.nameIds = new int[tableSize];
+        for (int slot = 0; slot < capacity; slot++) {
+            quantities.set(slot, ABSENT);
+        }
+    }
+
+    /**
+     * Registers a soda and returns its id, or {@link #NOT_FOUND} when the name is already taken.
+     *
+     * @throws IllegalStateException when every id up to the configured capacity was used
+     */
+    public synchronized long create(String name, String brand, int max, int quantity, SodaType type) {
+        if (idOf(name) != NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        if (highestId == capacity) {
+            throw new IllegalStateException(String.format("Kiosk catalog is full: %d ids used, see soda.kiosk.capacity", capacity));
+        }
+        int slot = highestId;
+        names[slot] = name;
+        brands[slot] = internedBrands.computeIfAbsent(brand, key -> key);
+        maxes[slot] = max;
+        types[slot] = (byte) type.ordinal();
+        quantities.set(slot, quantity);
+        highestId = slot + 1;
+        size++;
+        putName(name, slot + 1);
+        return slot + 1;
+    }
+
+    /**
+     * Removes a soda; returns false when it does not exist.
+     */
+    public synchronized boolean delete(long id) {
+        int slot = slotOf(id);
+        if (slot < 0 || quantities.getAndSet(slot, ABSENT) < 0) {
+            return false;
+        }
+        removeName(names[slot]);
+        size--;
+        return true;
+    }
+
+    /**
+     * Adds a signed delta to a soda's quantity, keeping it within {@code [0, max]}. Returns the new quantity,
+     * {@link #NOT_FOUND} or {@link #OUT_OF_RANGE}.
+     */
+    public int add(long id, int delta) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return NOT_FOUND;
+        }
+        int max = maxes[slot];
+        while (true) {
+            int current = quantities.get(slot);
+            if (current < 0) {
+                return NOT_FOUND;
+            }
+            int next = current + delta;
+            if (next < 0 || next > max) {
+                return OUT_OF_RANGE;
+            }
+            if (quantities.compareAndSet(slot, current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Undoes a delta previously applied with {@link #add(long, int)}, without re-checking the bounds.
+     */
+    public void revert(long id, int delta) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return;
+        }
+        while (true) {
+            int current = quantities.get(slot);
+            if (current < 0 || quantities.compareAndSet(slot, current, current - delta)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Id registered for the name, or {@link #NOT_FOUND}.
+     */
+    public long idOf(String name) {
+        long stamp = nameLock.tryOptimisticRead();
+        int id = findName(name);
+        if (!nameLock.validate(stamp)) {
+            stamp = nameLock.readLock();
+            try {
+                id = findName(name);
+            } finally {
+                nameLock.unlockRead(stamp);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Current quantity, or a negative value when the soda does not exist.
+     */
+    public int quantity(long id) {
+        int slot = slotOf(id);
+        return slot < 0 ? NOT_FOUND : quantities.get(slot);
+    }
+
+    /**
+     * Like the other column accessors, only meaningful for an id whose quantity was just read as non-negative.
+     */
+    public int max(long id) {
+        return maxes[slotOf(id)];
+    }
+
+    public SodaType type(long id) {
+        return SODA_TYPES[types[slotOf(id)]];
+    }
+
+    public String name(long id) {
+        return names[slotOf(id)];
+    }
+
+    public String brand(long id) {
+        return brands[slotOf(id)];
+    }
+
+    /**
+     * Highest id handed out so far; every existing soda has an id in {@code [1, highestId()]}.
+     */
+    public long highestId() {
+        return highestId;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int slotOf(long id) {
+        return id < 1 || id > highestId ? -1 : (int) id - 1;
+    }
+
+    private int findName(String name) {
+        int mask = nameKeys.length - 1;
+        for (int index = spread(name.hashCode()) & mask; ; index = (index + 1) & mask) {
+            String key = nameKeys[index];
+            if (key == null) {
+                return NOT_FOUND;
+            }
+            if (key != TOMBSTONE && key.equals(name)) {
+                return nameIds[index];
+            }
+        }
+    }
+
+    private void putName(String name, int id) {
+        long stamp = nameLock.writeLock();
+        try {
+            int mask = nameKeys.length - 1;
+            int index = spread(name.hashCode()) & mask;
+            while (nameKeys[index] != null && nameKeys[index] != TOMBSTONE) {
+                index = (index + 1) & mask;
+            }
+            nameIds[index] = id;
+            nameKeys[index] = name;
+        } finally {
+            nameLock.unlockWrite(stamp);
+        }
+    }
+
+    private void removeName(String name) {
+        long stamp = nameLock.writeLock();
+        try {
+            int mask = nameKeys.length - 1;
+            for (int index = spread(name.hashCode()) & mask; nameKeys[index] != null; index = (index + 1) & mask) {
+                if (nameKeys[index] != TOMBSTONE && nameKeys[index].equals(name)) {
+                    nameKeys[index] = TOMBSTONE;
+                    return;
+                }
+            }
+        } finally {
+            nameLock.unlockWrite(stamp);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
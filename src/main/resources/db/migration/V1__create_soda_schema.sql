@@ -0,0 +1,31 @@
+CREATE SEQUENCE soda_sequence START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE soda (
+    id       BIGINT       NOT NULL,
+    name     VARCHAR(255) NOT NULL,
+    brand    VARCHAR(255) NOT NULL,
+    max      INTEGER      NOT NULL,
+    quantity INTEGER      NOT NULL,
+    type     VARCHAR(255) NOT NULL,
+    version  BIGINT       NOT NULL,
+    CONSTRAINT pk_soda PRIMARY KEY (id),
+    CONSTRAINT uk_soda_name UNIQUE (name)
+);
+
+CREATE INDEX idx_soda_brand ON soda (brand);
+CREATE INDEX idx_soda_type_quantity ON soda (type, quantity);
+CREATE INDEX idx_soda_quantity ON soda (quantity);
+
+CREATE SEQUENCE stock_movement_sequence START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE stock_movement (
+    id             BIGINT       NOT NULL,
+    soda_id        BIGINT       NOT NULL,
+    delta          INTEGER      NOT NULL,
+    quantity_after INTEGER      NOT NULL,
+    reason         VARCHAR(255) NOT NULL,
+    occurred_at    TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_stock_movement PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_stock_movement_soda ON stock_movement (soda_id, occurred_at);
@@ -0,0 +1,43 @@
+package com.juliobalbino.estoquerefrigerante;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.controller.ReactiveSodaController;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.service.PrimitiveSodaService;
+import com.juliobalbino.estoquerefrigerante.service.SodaNameIndex;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import com.juliobalbino.estoquerefrigerante.service.SodaStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+@ActiveProfiles("kiosk")
+class KioskProfileApplicationTests {
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Test
+	void contextLoadsWithoutTheDatabaseBackedSodaApis() {
+		assertThat(applicationContext.getBean(SodaService.class), is(instanceOf(PrimitiveSodaService.class)));
+		assertThat(applicationContext.getBeanNamesForType(ReactiveSodaController.class), is(emptyArray()));
+	}
+
+	@Test
+	void statisticsAndNameIndexAreRebuiltFromTheKioskStore() throws Exception {
+		SodaDTO sodaDTO = SodaDTOBuilder.builder().name("Kiosk Cola").build().toSodaDTO();
+		applicationContext.getBean(SodaService.class).createSoda(sodaDTO);
+		SodaNameIndex sodaNameIndex = applicationContext.getBean(SodaNameIndex.class);
+		sodaNameIndex.start();
+
+		assertThat(applicationContext.getBean(SodaStatistics.class).recompute().getTotal().getUnits(), is(equalTo((long) sodaDTO.getQuantity())));
+		assertThat(sodaNameIndex.suggest("kiosk", 10), contains("Kiosk Cola"));
+	}
+
+}
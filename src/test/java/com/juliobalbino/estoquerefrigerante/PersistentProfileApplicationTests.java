@@ -0,0 +1,52 @@
+package com.juliobalbino.estoquerefrigerante;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.service.ReactiveSodaService;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+@ActiveProfiles("persistent")
+class PersistentProfileApplicationTests {
+
+	@TempDir
+	static Path dataDir;
+
+	@Autowired
+	private SodaService sodaService;
+
+	@Autowired
+	private ReactiveSodaService reactiveSodaService;
+
+	@DynamicPropertySource
+	static void dataDirProperties(DynamicPropertyRegistry registry) {
+		registry.add("soda.data-dir", () -> dataDir.toAbsolutePath().toString());
+	}
+
+	@Test
+	void blockingAndReactiveApisShareTheDatabaseFile() throws Exception {
+		SodaDTO sodaDTO = SodaDTOBuilder.builder().name("Guarana").build().toSodaDTO();
+
+		SodaDTO createdSodaDTO = reactiveSodaService.createSoda(sodaDTO).block();
+
+		assertThat(sodaService.findByName("Guarana").getId(), is(equalTo(createdSodaDTO.getId())));
+		try (Stream<Path> databaseFiles = Files.list(dataDir)) {
+			assertThat(databaseFiles.anyMatch(file -> file.getFileName().toString().startsWith("estoquerefrigerante")), is(true));
+		}
+	}
+
+}
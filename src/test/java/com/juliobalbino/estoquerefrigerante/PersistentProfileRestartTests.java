@@ -0,0 +1,52 @@
+package com.juliobalbino.estoquerefrigerante;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import com.juliobalbino.estoquerefrigerante.snapshot.SodaSnapshotManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class PersistentProfileRestartTests {
+
+	@TempDir
+	Path dataDir;
+
+	@Test
+	void whenTheApplicationRestartsThenTheCatalogIsServedFromTheSnapshot() throws Exception {
+		SodaDTO sodaDTO = SodaDTOBuilder.builder().name("Guarana").build().toSodaDTO();
+		try (ConfigurableApplicationContext firstRun = start()) {
+			firstRun.getBean(SodaService.class).createSoda(sodaDTO);
+			assertThat(firstRun.getBean(SodaSnapshotManager.class).isServing(), is(false));
+		}
+		assertThat(Files.exists(dataDir.resolve("soda.snapshot")), is(true));
+
+		try (ConfigurableApplicationContext secondRun = start()) {
+			SodaSnapshotManager sodaSnapshotManager = secondRun.getBean(SodaSnapshotManager.class);
+			List<SodaDTO> snapshotSodas = new ArrayList<>();
+
+			assertThat(sodaSnapshotManager.isServing(), is(true));
+			assertThat(sodaSnapshotManager.streamAll(snapshotSodas::add), is(true));
+			assertThat(snapshotSodas, hasSize(1));
+			assertThat(sodaSnapshotManager.findByName("Guarana").getBrand(), is(equalTo(sodaDTO.getBrand())));
+			assertThat(secondRun.getBean(SodaService.class).findByName("Guarana"), is(equalTo(sodaSnapshotManager.findByName("Guarana"))));
+		}
+	}
+
+	private ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(EstoquerefrigeranteSpringApplication.class)
+				.profiles("persistent")
+				.run("--soda.data-dir=" + dataDir.toAbsolutePath(), "--server.port=0");
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.juliobalbino.estoquerefrigerante.cache;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SodaCacheTest {
+
+    private final SodaCache sodaCache = new SodaCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+
+    @Test
+    void whenSodaIsPutWithCurrentStampThenItIsCached() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        // when
+        sodaCache.put(sodaDTO, sodaCache.stamp(sodaDTO.getName()));
+
+        // then
+        assertThat(sodaCache.get(sodaDTO.getName()), is(equalTo(sodaDTO)));
+    }
+
+    @Test
+    void whenSodaChangedAfterItWasLoadedThenTheLoadedValueIsNotCached() {
+        // given
+        SodaDTO loadedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        long stamp = sodaCache.stamp(loadedSodaDTO.getName());
+
+        // when
+        sodaCache.onSodaChanged(SodaChangedEvent.stockChanged(loadedSodaDTO, 1));
+        sodaCache.put(loadedSodaDTO, stamp);
+
+        // then
+        assertThat(sodaCache.get(loadedSodaDTO.getName()), is(nullValue()));
+    }
+
+    @Test
+    void whenSodaChangesThenTheCachedValueIsEvicted() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        sodaCache.put(sodaDTO, sodaCache.stamp(sodaDTO.getName()));
+
+        // when
+        sodaCache.onSodaChanged(SodaChangedEvent.deleted(sodaDTO));
+
+        // then
+        assertThat(sodaCache.get(sodaDTO.getName()), is(nullValue()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.juliobalbino.estoquerefrigerante.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.cache.SodaCatalogCache.SerializedCatalog;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import com.juliobalbino.estoquerefrigerante.service.SodaVersionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SodaCatalogCacheTest {
+
+    private final SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+    private final SodaVersionRegistry sodaVersionRegistry = new SodaVersionRegistry();
+
+    @Mock
+    private SodaService sodaService;
+
+    private SodaCatalogCache sodaCatalogCache;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<SodaDTO> consumer = invocation.getArgument(0);
+            consumer.accept(sodaDTO);
+            return null;
+        }).when(sodaService).streamAll(any());
+        sodaCatalogCache = new SodaCatalogCache(sodaService, sodaVersionRegistry, new ObjectMapper(), true, false);
+    }
+
+    @Test
+    void whenAnOlderVersionIsRequestedThenTheCachedCatalogIsServed() {
+        // given
+        long olderVersion = sodaVersionRegistry.catalogVersion();
+        sodaVersionRegistry.onSodaChanged(SodaChangedEvent.stockChanged(sodaDTO, 1));
+        SerializedCatalog cached = sodaCatalogCache.get(sodaVersionRegistry.catalogVersion());
+
+        // when
+        SerializedCatalog served = sodaCatalogCache.get(olderVersion);
+
+        // then
+        assertThat(served, is(sameInstance(cached)));
+        verify(sodaService, times(1)).streamAll(any());
+    }
+
+    @Test
+    void whenANewerVersionIsRequestedThenTheCatalogIsRebuiltOnce() {
+        // given
+        SerializedCatalog cached = sodaCatalogCache.get(sodaVersionRegistry.catalogVersion());
+        sodaVersionRegistry.onSodaChanged(SodaChangedEvent.stockChanged(sodaDTO, 1));
+
+        // when
+        SerializedCatalog rebuilt = sodaCatalogCache.get(sodaVersionRegistry.catalogVersion());
+
+        // then
+        assertThat(rebuilt, is(not(sameInstance(cached))));
+        assertThat(rebuilt.getCatalogVersion(), is(equalTo(sodaVersionRegistry.catalogVersion())));
+        assertThat(sodaCatalogCache.get(cached.getCatalogVersion()), is(sameInstance(rebuilt)));
+        verify(sodaService, times(2)).streamAll(any());
+    }
+}
@@ -0,0 +1,84 @@
+package com.juliobalbino.estoquerefrigerante.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OptimisticLockRetryAspectTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final OptimisticLockRetryAspect optimisticLockRetryAspect =
+            new OptimisticLockRetryAspect(meterRegistry, MAX_ATTEMPTS, Duration.ofMillis(1), Duration.ofMillis(2));
+
+    @Test
+    void whenConflictIsTransientThenTheCallIsRetried() {
+        // given
+        StockWriter stockWriter = proxyOf(new StockWriter(2));
+
+        // when
+        int attempts = stockWriter.write();
+
+        // then
+        assertThat(attempts, is(equalTo(3)));
+        assertThat(conflicts(), is(equalTo(2.0)));
+        assertThat(retries(), is(equalTo(2.0)));
+    }
+
+    @Test
+    void whenConflictsExceedMaxAttemptsThenTheConflictIsThrown() {
+        // given
+        StockWriter stockWriter = proxyOf(new StockWriter(MAX_ATTEMPTS + 1));
+
+        // then
+        assertThrows(OptimisticLockingFailureException.class, stockWriter::write);
+        assertThat(conflicts(), is(equalTo((double) MAX_ATTEMPTS)));
+        assertThat(retries(), is(equalTo((double) MAX_ATTEMPTS - 1)));
+    }
+
+    private StockWriter proxyOf(StockWriter target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(optimisticLockRetryAspect);
+        return proxyFactory.getProxy();
+    }
+
+    private double conflicts() {
+        return meterRegistry.counter("soda.optimistic.conflicts", "operation", "write").count();
+    }
+
+    private double retries() {
+        return meterRegistry.counter("soda.optimistic.retries", "operation", "write").count();
+    }
+
+    static class StockWriter {
+
+        private int remainingConflicts;
+
+        private int attempts;
+
+        StockWriter() {
+        }
+
+        StockWriter(int conflicts) {
+            this.remainingConflicts = conflicts;
+        }
+
+        @RetryOnOptimisticLock(operation = "write")
+        public int write() {
+            attempts++;
+            if (remainingConflicts-- > 0) {
+                throw new OptimisticLockingFailureException("Soda was changed concurrently");
+            }
+            return attempts;
+        }
+    }
+}
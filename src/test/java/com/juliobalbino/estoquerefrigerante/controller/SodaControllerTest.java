@@ -1,33 +1,74 @@
 package com.juliobalbino.estoquerefrigerante.controller;
 
+import com.juliobalbino.estoquerefrigerante.alert.SseStockAlertSink;
 import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.cache.SodaCatalogCache;
+import com.juliobalbino.estoquerefrigerante.cache.SodaCatalogCache.SerializedCatalog;
 import com.juliobalbino.estoquerefrigerante.dto.QuantityDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaBatchDTO;
 import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentRequestDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAggregateDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockStatisticsDTO;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentStatus;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
 import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
 import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.service.LowStockIndex;
+import com.juliobalbino.estoquerefrigerante.service.SodaChangeFeed;
+import com.juliobalbino.estoquerefrigerante.service.SodaNameIndex;
 import com.juliobalbino.estoquerefrigerante.service.SodaService;
+import com.juliobalbino.estoquerefrigerante.service.SodaStatistics;
+import com.juliobalbino.estoquerefrigerante.service.SodaVersionRegistry;
+import com.juliobalbino.estoquerefrigerante.service.StockCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import static com.juliobalbino.estoquerefrigerante.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,12 +79,41 @@ public class SodaControllerTest {
     private static final long INVALID_SODA_ID = 2L;
     private static final String SODA_API_SUBPATH_INCREMENT_URL = "/increment";
     private static final String SODA_API_SUBPATH_DECREMENT_URL = "/decrement";
+    private static final String SODA_API_SUBPATH_STOCK_URL = "/stock";
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
 
     private MockMvc mockMvc;
 
     @Mock
     private SodaService sodaService;
 
+    @Mock
+    private StockCoalescer stockCoalescer;
+
+    @Mock
+    private SodaStatistics sodaStatistics;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private SseStockAlertSink sseStockAlertSink;
+
+    @Mock
+    private SodaChangeFeed sodaChangeFeed;
+
+    @Mock
+    private SodaNameIndex sodaNameIndex;
+
+    @Mock
+    private SodaCatalogCache sodaCatalogCache;
+
+    @Spy
+    private SodaVersionRegistry sodaVersionRegistry = new SodaVersionRegistry();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private SodaController sodaController;
 
@@ -87,6 +157,59 @@ public class SodaControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPOSTIsCalledWithABatchThenAllSodasAreCreated() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        SodaBatchDTO sodaBatchDTO = new SodaBatchDTO(Collections.singletonList(sodaDTO));
+
+        // when
+        when(sodaService.createSodas(sodaBatchDTO.getSodas())).thenReturn(sodaBatchDTO.getSodas());
+
+        // then
+        mockMvc.perform(post(SODA_API_URL_PATH + "/bulk")
+                .contentType(APPLICATION_JSON)
+                .content(asJsonString(sodaBatchDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].name", is(sodaDTO.getName())));
+    }
+
+    @Test
+    void whenPOSTBulkIsCalledWithTooManySodasThenAnErrorIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        SodaBatchDTO sodaBatchDTO = new SodaBatchDTO(Collections.nCopies(SodaBatchDTO.MAX_SODAS + 1, sodaDTO));
+
+        // then
+        mockMvc.perform(post(SODA_API_URL_PATH + "/bulk")
+                .contentType(APPLICATION_JSON)
+                .content(asJsonString(sodaBatchDTO)))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(sodaService);
+    }
+
+    @Test
+    void whenPOSTBulkIsCalledWithCborThenCborIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        SodaBatchDTO sodaBatchDTO = new SodaBatchDTO(Collections.singletonList(sodaDTO));
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+        // when
+        when(sodaService.createSodas(sodaBatchDTO.getSodas())).thenReturn(sodaBatchDTO.getSodas());
+
+        // then
+        byte[] responseBody = mockMvc.perform(post(SODA_API_URL_PATH + "/bulk")
+                .contentType(APPLICATION_CBOR)
+                .accept(APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(sodaBatchDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(cborMapper.readValue(responseBody, SodaDTO[].class), is(new SodaDTO[]{sodaDTO}));
+    }
+
     @Test
     void whenGETIsCalledWithValidNameThenOkStatusIsReturned() throws Exception {
         // given
@@ -104,6 +227,41 @@ public class SodaControllerTest {
                 .andExpect(jsonPath("$.type", is(sodaDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETIsCalledWithCurrentETagThenNotModifiedStatusIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        String eTag = jsonVariantOf(sodaVersionRegistry.eTagOf(sodaDTO.getName()));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/" + sodaDTO.getName())
+                .header("If-None-Match", eTag)
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        verify(sodaService, never()).findByName(sodaDTO.getName());
+    }
+
+    @Test
+    void whenGETIsCalledWithOutdatedETagThenOkStatusIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        String outdatedETag = jsonVariantOf(sodaVersionRegistry.eTagOf(sodaDTO.getName()));
+        sodaVersionRegistry.onSodaChanged(SodaChangedEvent.stockChanged(sodaDTO, 1));
+
+        //when
+        when(sodaService.findByName(sodaDTO.getName())).thenReturn(sodaDTO);
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/" + sodaDTO.getName())
+                .header("If-None-Match", outdatedETag)
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", jsonVariantOf(sodaVersionRegistry.eTagOf(sodaDTO.getName()))))
+                .andExpect(jsonPath("$.name", is(sodaDTO.getName())));
+    }
+
     @Test
     void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned() throws Exception {
         // given
@@ -135,6 +293,86 @@ public class SodaControllerTest {
                 .andExpect(jsonPath("$[0].type", is(sodaDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETListIsCalledWithSmileThenSmileIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        //when
+        when(sodaService.listAll()).thenReturn(Collections.singletonList(sodaDTO));
+
+        // then
+        byte[] responseBody = mockMvc.perform(get(SODA_API_URL_PATH)
+                .accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(smileMapper.readValue(responseBody, SodaDTO[].class), is(new SodaDTO[]{sodaDTO}));
+        verifyNoInteractions(sodaCatalogCache);
+    }
+
+    @Test
+    void whenGETListIsCalledWithSmileAndTheJsonETagThenTheSmileVariantIsReturned() throws Exception {
+        // given
+        String jsonETag = jsonVariantOf(sodaVersionRegistry.catalogETag());
+
+        //when
+        when(sodaService.listAll()).thenReturn(Collections.emptyList());
+
+        // then
+        String smileETag = mockMvc.perform(get(SODA_API_URL_PATH)
+                .header("If-None-Match", jsonETag)
+                .accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(smileETag, is(not(equalTo(jsonETag))));
+        assertThat(smileETag, endsWith("-smile\""));
+    }
+
+    @Test
+    void whenGETListIsCalledThenThePreSerializedCatalogIsReturned() throws Exception {
+        // given
+        byte[] json = asJsonString(Collections.singletonList(SodaDTOBuilder.builder().build().toSodaDTO())).getBytes();
+        long catalogVersion = sodaVersionRegistry.catalogVersion();
+
+        //when
+        when(sodaCatalogCache.get(catalogVersion)).thenReturn(new SerializedCatalog(catalogVersion, json, new byte[]{31, -117}));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH)
+                .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(json));
+        verifyNoInteractions(sodaService);
+    }
+
+    @Test
+    void whenGETListIsCalledAcceptingGzipThenThePreCompressedCatalogIsReturned() throws Exception {
+        // given
+        byte[] gzippedJson = {31, -117, 8, 0};
+        String eTag = sodaVersionRegistry.catalogETag();
+        long catalogVersion = sodaVersionRegistry.catalogVersion();
+
+        //when
+        when(sodaCatalogCache.servesGzip()).thenReturn(true);
+        when(sodaCatalogCache.get(catalogVersion)).thenReturn(new SerializedCatalog(catalogVersion, "[]".getBytes(), gzippedJson));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH)
+                .header("If-None-Match", jsonVariantOf(eTag))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-json-gzip\"")))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andExpect(content().bytes(gzippedJson));
+    }
+
     @Test
     void whenGETListWithoutSodasIsCalledThenOkStatusIsReturned() throws Exception {
         // given
@@ -148,6 +386,204 @@ public class SodaControllerTest {
                 .contentType(APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
+    @Test
+    void whenGETPageIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Pageable pageable = PageRequest.of(0, 20);
+
+        //when
+        when(sodaService.listPage(pageable)).thenReturn(new PageImpl<>(Collections.singletonList(sodaDTO), pageable, 1));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH)
+                .param("page", "0")
+                .param("size", "20")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(sodaDTO.getName())))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    void whenGETSearchIsCalledThenFiltersAreBoundAndOkStatusIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        SodaSearchCriteriaDTO criteria = SodaSearchCriteriaDTO.builder()
+                .namePrefix("Pep")
+                .type(sodaDTO.getType())
+                .maxQuantity(20)
+                .build();
+        Pageable pageable = PageRequest.of(0, 20);
+
+        //when
+        when(sodaService.search(criteria, pageable)).thenReturn(new PageImpl<>(Collections.singletonList(sodaDTO), pageable, 1));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/search")
+                .param("namePrefix", "Pep")
+                .param("type", sodaDTO.getType().toString())
+                .param("maxQuantity", "20")
+                .param("page", "0")
+                .param("size", "20")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(sodaDTO.getName())))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    void whenGETSuggestIsCalledThenMatchingNamesAreReturned() throws Exception {
+        //when
+        when(sodaNameIndex.suggest("pep", 5)).thenReturn(Arrays.asList("Pepsi", "Pepsi Twist"));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/suggest")
+                .param("prefix", "pep")
+                .param("limit", "5")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("Pepsi")))
+                .andExpect(jsonPath("$[1]", is("Pepsi Twist")));
+    }
+
+    @Test
+    void whenGETMovementsIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        StockMovementDTO stockMovementDTO = StockMovementDTO.builder()
+                .id(1L)
+                .sodaId(VALID_SODA_ID)
+                .delta(10)
+                .quantityAfter(20)
+                .reason(StockMovementReason.INCREMENT)
+                .build();
+        Pageable pageable = PageRequest.of(0, 20);
+
+        //when
+        when(sodaService.listMovements(VALID_SODA_ID, pageable)).thenReturn(new PageImpl<>(Collections.singletonList(stockMovementDTO), pageable, 1));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/" + VALID_SODA_ID + "/movements")
+                .param("page", "0")
+                .param("size", "20")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].delta", is(10)))
+                .andExpect(jsonPath("$.content[0].reason", is(StockMovementReason.INCREMENT.toString())));
+    }
+
+    @Test
+    void whenGETStatsIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        StockAggregateDTO coca = StockAggregateDTO.builder()
+                .key("COCA")
+                .sodas(2L)
+                .units(30L)
+                .capacity(60L)
+                .fillRatio(0.5)
+                .lowStock(1L)
+                .build();
+        StockStatisticsDTO stockStatisticsDTO = StockStatisticsDTO.builder()
+                .total(coca)
+                .byType(Collections.singletonList(coca))
+                .byBrand(Collections.emptyList())
+                .build();
+
+        //when
+        when(sodaStatistics.snapshot()).thenReturn(stockStatisticsDTO);
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/stats")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byType[0].key", is("COCA")))
+                .andExpect(jsonPath("$.byType[0].fillRatio", is(0.5)))
+                .andExpect(jsonPath("$.total.lowStock", is(1)));
+    }
+
+    @Test
+    void whenGETListIsCalledWithCurrentCatalogETagThenNotModifiedStatusIsReturned() throws Exception {
+        // given
+        String eTag = jsonVariantOf(sodaVersionRegistry.catalogETag());
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH)
+                .header("If-None-Match", eTag)
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        verify(sodaService, never()).listAll();
+    }
+
+    @Test
+    void whenGETLowStockIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().quantity(1).build().toSodaDTO();
+
+        //when
+        when(lowStockIndex.lowStock(10)).thenReturn(Collections.singletonList(sodaDTO));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/low-stock")
+                .param("limit", "10")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(sodaDTO.getName())))
+                .andExpect(jsonPath("$[0].quantity", is(1)));
+    }
+
+    @Test
+    void whenGETChangesIsCalledWithLastEventIdThenTheFeedIsResumedFromIt() throws Exception {
+        //when
+        when(sodaChangeFeed.subscribe("3f-42")).thenReturn(new SseEmitter());
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH + "/changes")
+                .header("Last-Event-ID", "3f-42")
+                .param("since", "3f-7")
+                .accept(TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(sodaChangeFeed).subscribe("3f-42");
+    }
+
+    @Test
+    void whenGETAfterIdIsCalledThenOkStatusIsReturned() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        //when
+        when(sodaService.listAfter(0L, 50)).thenReturn(Collections.singletonList(sodaDTO));
+
+        // then
+        mockMvc.perform(get(SODA_API_URL_PATH)
+                .param("afterId", "0")
+                .param("size", "50")
+                .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(sodaDTO.getName())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenGETExportIsCalledThenSodasAreStreamedAsNdjson() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        //when
+        doAnswer(invocation -> {
+            ((Consumer<SodaDTO>) invocation.getArgument(0)).accept(sodaDTO);
+            return null;
+        }).when(sodaService).streamAll(any());
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(get(SODA_API_URL_PATH + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(asJsonString(sodaDTO) + "\n"));
+    }
+
     @Test
     void whenDELETEIsCalledWithValidIdThenNoContentStatusIsReturned() throws Exception {
         // given
@@ -224,6 +660,23 @@ public class SodaControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenPATCHIsCalledToDecrementWithCoalescingEnabledThenTheCoalescerIsUsed() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder()
+                .quantity(5)
+                .build();
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        when(stockCoalescer.isEnabled()).thenReturn(true);
+        when(stockCoalescer.decrement(VALID_SODA_ID, quantityDTO.getQuantity())).thenReturn(sodaDTO);
+
+        mockMvc.perform(patch(SODA_API_URL_PATH + "/" + VALID_SODA_ID + SODA_API_SUBPATH_DECREMENT_URL)
+                .contentType(APPLICATION_JSON)
+                .content(asJsonString(quantityDTO))).andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(sodaDTO.getQuantity())));
+        verifyNoInteractions(sodaService);
+    }
+
     @Test
     void whenPATCHIsCalledToDecrementDiscountThenOKStatusIsReturned() throws Exception {
         QuantityDTO quantityDTO = QuantityDTO.builder()
@@ -272,4 +725,48 @@ public class SodaControllerTest {
                 .content(asJsonString(quantityDTO)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void whenPATCHIsCalledToAdjustStockThenOKStatusIsReturned() throws Exception {
+        StockAdjustmentRequestDTO stockAdjustmentRequestDTO = StockAdjustmentRequestDTO.builder()
+                .mode(StockAdjustmentMode.BEST_EFFORT)
+                .adjustments(Collections.singletonList(new StockAdjustmentDTO(VALID_SODA_ID, 5)))
+                .build();
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        StockAdjustmentResultDTO resultDTO = StockAdjustmentResultDTO.builder()
+                .id(VALID_SODA_ID)
+                .delta(5)
+                .status(StockAdjustmentStatus.APPLIED)
+                .soda(sodaDTO)
+                .build();
+
+        when(sodaService.adjustStock(stockAdjustmentRequestDTO.getAdjustments(), StockAdjustmentMode.BEST_EFFORT))
+                .thenReturn(Collections.singletonList(resultDTO));
+
+        mockMvc.perform(patch(SODA_API_URL_PATH + SODA_API_SUBPATH_STOCK_URL)
+                .contentType(APPLICATION_JSON)
+                .content(asJsonString(stockAdjustmentRequestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(StockAdjustmentStatus.APPLIED.toString())))
+                .andExpect(jsonPath("$[0].soda.name", is(sodaDTO.getName())));
+    }
+
+    @Test
+    void whenPATCHIsCalledToAdjustStockBeyondMaxThenBadRequestStatusIsReturned() throws Exception {
+        StockAdjustmentRequestDTO stockAdjustmentRequestDTO = StockAdjustmentRequestDTO.builder()
+                .adjustments(Collections.singletonList(new StockAdjustmentDTO(VALID_SODA_ID, 100)))
+                .build();
+
+        when(sodaService.adjustStock(stockAdjustmentRequestDTO.getAdjustments(), StockAdjustmentMode.ALL_OR_NOTHING))
+                .thenThrow(SodaStockExceededException.class);
+
+        mockMvc.perform(patch(SODA_API_URL_PATH + SODA_API_SUBPATH_STOCK_URL)
+                .contentType(APPLICATION_JSON)
+                .content(asJsonString(stockAdjustmentRequestDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String jsonVariantOf(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-json\"";
+    }
 }
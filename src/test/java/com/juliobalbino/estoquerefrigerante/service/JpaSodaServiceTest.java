@@ -0,0 +1,625 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.cache.SodaCache;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaLockManager;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockMovementDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.entity.StockMovement;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentStatus;
+import com.juliobalbino.estoquerefrigerante.enums.SodaChangeType;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
+import com.juliobalbino.estoquerefrigerante.repository.SodaRepository;
+import com.juliobalbino.estoquerefrigerante.snapshot.SodaSnapshotManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JpaSodaServiceTest {
+
+    private static final long INVALID_SODA_ID = 1L;
+
+    @Mock
+    private SodaRepository sodaRepository;
+
+    @Mock
+    private WriteBehindStockEngine writeBehindStockEngine;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private SodaCache sodaCache;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private SodaLockManager sodaLockManager;
+
+    @Mock
+    private SodaChangeGate sodaChangeGate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SodaSnapshotManager sodaSnapshotManager;
+
+    private SodaMapper sodaMapper = SodaMapper.INSTANCE;
+
+    @InjectMocks
+    private JpaSodaService sodaService;
+
+    @Test
+    void whenSodaInformedThenItShouldBeCreated() throws SodaAlreadyRegisteredException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSavedSoda = sodaMapper.toModel(expectedSodaDTO);
+
+        // when
+        when(sodaRepository.findByName(expectedSodaDTO.getName())).thenReturn(Optional.empty());
+        when(sodaRepository.save(expectedSavedSoda)).thenReturn(expectedSavedSoda);
+
+        // then
+        SodaDTO createdSodaDTO = sodaService.createSoda(expectedSodaDTO);
+
+        assertThat(createdSodaDTO.getId(), is(equalTo(expectedSodaDTO.getId())));
+        assertThat(createdSodaDTO.getName(), is(equalTo(expectedSodaDTO.getName())));
+        assertThat(createdSodaDTO.getQuantity(), is(equalTo(expectedSodaDTO.getQuantity())));
+    }
+
+    @Test
+    void whenAlreadyRegisteredSodaInformedThenAnExceptionShouldBeThrown() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda duplicatedSoda = sodaMapper.toModel(expectedSodaDTO);
+
+        // when
+        when(sodaRepository.findByName(expectedSodaDTO.getName())).thenReturn(Optional.of(duplicatedSoda));
+
+        // then
+        assertThrows(SodaAlreadyRegisteredException.class, () -> sodaService.createSoda(expectedSodaDTO));
+    }
+
+    @Test
+    void whenSodaBatchInformedThenAllSodasShouldBeCreated() throws SodaAlreadyRegisteredException {
+        // given
+        SodaDTO firstSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        SodaDTO secondSodaDTO = SodaDTOBuilder.builder().id(2L).name("Guarana Antarctica").build().toSodaDTO();
+        List<SodaDTO> sodaDTOs = Arrays.asList(firstSodaDTO, secondSodaDTO);
+        List<Soda> savedSodas = Arrays.asList(sodaMapper.toModel(firstSodaDTO), sodaMapper.toModel(secondSodaDTO));
+
+        // when
+        when(sodaRepository.findRegisteredNames(anyList())).thenReturn(Collections.emptyList());
+        when(sodaRepository.saveAll(anyList())).thenReturn(savedSodas);
+
+        // then
+        List<SodaDTO> createdSodaDTOs = sodaService.createSodas(sodaDTOs);
+
+        assertThat(createdSodaDTOs, is(equalTo(sodaDTOs)));
+        verify(sodaRepository, times(1)).findRegisteredNames(anyList());
+        verify(sodaRepository, never()).findByName(anyString());
+    }
+
+    @Test
+    void whenLargeSodaBatchInformedThenItIsPersistedInFlushedChunks() throws SodaAlreadyRegisteredException {
+        // given
+        List<SodaDTO> sodaDTOs = new ArrayList<>();
+        for (long id = 1; id <= 120; id++) {
+            sodaDTOs.add(SodaDTOBuilder.builder().id(id).name("Soda " + id).build().toSodaDTO());
+        }
+
+        // when
+        when(sodaRepository.findRegisteredNames(anyList())).thenReturn(Collections.emptyList());
+        when(sodaRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // then
+        List<SodaDTO> createdSodaDTOs = sodaService.createSodas(sodaDTOs);
+
+        assertThat(createdSodaDTOs, hasSize(120));
+        verify(sodaRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void whenSodaBatchContainsRegisteredNameThenAnExceptionShouldBeThrown() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        // when
+        when(sodaRepository.findRegisteredNames(anyList())).thenReturn(Collections.singletonList(sodaDTO.getName()));
+
+        // then
+        assertThrows(SodaAlreadyRegisteredException.class, () -> sodaService.createSodas(Collections.singletonList(sodaDTO)));
+        verify(sodaRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void whenSodaBatchRepeatsANameThenAnExceptionShouldBeThrown() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        // then
+        assertThrows(SodaAlreadyRegisteredException.class, () -> sodaService.createSodas(Arrays.asList(sodaDTO, sodaDTO)));
+        verifyNoInteractions(sodaRepository);
+    }
+
+    @Test
+    void whenValidSodaNameIsGivenThenReturnASoda() throws SodaNotFoundException {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedFoundSoda = sodaMapper.toModel(expectedFoundSodaDTO);
+
+        // when
+        when(sodaRepository.findByName(expectedFoundSoda.getName())).thenReturn(Optional.of(expectedFoundSoda));
+
+        // then
+        SodaDTO foundSodaDTO = sodaService.findByName(expectedFoundSodaDTO.getName());
+
+        assertThat(foundSodaDTO, is(equalTo(expectedFoundSodaDTO)));
+    }
+
+    @Test
+    void whenCachedSodaNameIsGivenThenRepositoryIsNotQueried() throws SodaNotFoundException {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        // when
+        when(sodaCache.get(expectedFoundSodaDTO.getName())).thenReturn(expectedFoundSodaDTO);
+
+        // then
+        SodaDTO foundSodaDTO = sodaService.findByName(expectedFoundSodaDTO.getName());
+
+        assertThat(foundSodaDTO, is(equalTo(expectedFoundSodaDTO)));
+        verifyNoInteractions(sodaRepository);
+    }
+
+    @Test
+    void whenSnapshotSodaNameIsGivenThenRepositoryIsNotQueried() throws SodaNotFoundException {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        // when
+        when(sodaSnapshotManager.findByName(expectedFoundSodaDTO.getName())).thenReturn(expectedFoundSodaDTO);
+
+        // then
+        SodaDTO foundSodaDTO = sodaService.findByName(expectedFoundSodaDTO.getName());
+
+        assertThat(foundSodaDTO, is(equalTo(expectedFoundSodaDTO)));
+        verify(sodaCache).put(expectedFoundSodaDTO, 0L);
+        verifyNoInteractions(sodaRepository);
+    }
+
+    @Test
+    void whenNoRegisteredSodaNameIsGivenThenThrowException() {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+
+        // when
+        when(sodaRepository.findByName(expectedFoundSodaDTO.getName())).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(SodaNotFoundException.class, ()->sodaService.findByName(expectedFoundSodaDTO.getName()));
+    }
+
+    @Test
+    void whenListSodaIsCalledThenReturnAListOfSodas() {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedFoundSoda = sodaMapper.toModel(expectedFoundSodaDTO);
+
+        // when
+        when(sodaRepository.findAll()).thenReturn(Collections.singletonList(expectedFoundSoda));
+
+        // then
+        List<SodaDTO> foundListSodasDTO = sodaService.listAll();
+
+        assertThat(foundListSodasDTO, is(not(empty())));
+        assertThat(foundListSodasDTO.get(0), is(equalTo(expectedFoundSodaDTO)));
+    }
+
+    @Test
+    void whenListSodaIsCalledThenReturnAnEmptyListOfSodas() {
+        // when
+        when(sodaRepository.findAll()).thenReturn(Collections.EMPTY_LIST);
+
+        // then
+        List<SodaDTO> foundListSodasDTO = sodaService.listAll();
+
+        assertThat(foundListSodasDTO, is(empty()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenSearchIsCalledThenReturnAPageOfMatchingSodas() {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedFoundSoda = sodaMapper.toModel(expectedFoundSodaDTO);
+        SodaSearchCriteriaDTO criteria = SodaSearchCriteriaDTO.builder()
+                .brand(expectedFoundSodaDTO.getBrand())
+                .type(SodaType.COCA)
+                .minQuantity(5)
+                .build();
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // when
+        when(sodaRepository.findAll(ArgumentMatchers.any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(expectedFoundSoda), pageable, 1));
+
+        // then
+        Page<SodaDTO> foundPage = sodaService.search(criteria, pageable);
+
+        assertThat(foundPage.getTotalElements(), is(equalTo(1L)));
+        assertThat(foundPage.getContent().get(0), is(equalTo(expectedFoundSodaDTO)));
+    }
+
+    @Test
+    void whenListMovementsIsCalledThenReturnTheSodaHistory() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10);
+        StockMovement expectedMovement = StockLedger.movement(1L, -5, 5, StockMovementReason.DECREMENT);
+
+        // when
+        when(stockLedger.history(1L, pageable)).thenReturn(new PageImpl<>(Collections.singletonList(expectedMovement), pageable, 1));
+
+        // then
+        Page<StockMovementDTO> foundPage = sodaService.listMovements(1L, pageable);
+
+        assertThat(foundPage.getTotalElements(), is(equalTo(1L)));
+        assertThat(foundPage.getContent().get(0).getDelta(), is(equalTo(-5)));
+        assertThat(foundPage.getContent().get(0).getQuantityAfter(), is(equalTo(5)));
+        assertThat(foundPage.getContent().get(0).getReason(), is(equalTo(StockMovementReason.DECREMENT)));
+    }
+
+    @Test
+    void whenListPageIsCalledThenReturnAPageOfSodas() {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedFoundSoda = sodaMapper.toModel(expectedFoundSodaDTO);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // when
+        when(sodaRepository.findAll(pageable)).thenReturn(new PageImpl<>(Collections.singletonList(expectedFoundSoda), pageable, 1));
+
+        // then
+        Page<SodaDTO> foundPage = sodaService.listPage(pageable);
+
+        assertThat(foundPage.getTotalElements(), is(equalTo(1L)));
+        assertThat(foundPage.getContent().get(0), is(equalTo(expectedFoundSodaDTO)));
+    }
+
+    @Test
+    void whenListAfterIsCalledThenReturnTheNextSodasById() {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().id(5L).build().toSodaDTO();
+        Soda expectedFoundSoda = sodaMapper.toModel(expectedFoundSodaDTO);
+
+        // when
+        when(sodaRepository.findByIdGreaterThanOrderByIdAsc(4L, PageRequest.of(0, 10))).thenReturn(Collections.singletonList(expectedFoundSoda));
+
+        // then
+        List<SodaDTO> foundListSodasDTO = sodaService.listAfter(4L, 10);
+
+        assertThat(foundListSodasDTO, contains(expectedFoundSodaDTO));
+    }
+
+    @Test
+    void whenStreamAllIsCalledThenEverySodaIsConsumedAndDetached() {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedFoundSoda = sodaMapper.toModel(expectedFoundSodaDTO);
+        List<SodaDTO> consumedSodas = new ArrayList<>();
+
+        // when
+        when(sodaRepository.streamAll()).thenReturn(Stream.of(expectedFoundSoda));
+
+        // then
+        sodaService.streamAll(consumedSodas::add);
+
+        assertThat(consumedSodas, contains(expectedFoundSodaDTO));
+        verify(entityManager, times(1)).detach(expectedFoundSoda);
+    }
+
+    @Test
+    void whenExclusionIsCalledWithValidIdThenASodaShouldBeDeleted() throws SodaNotFoundException {
+        // given
+        SodaDTO expectedDeletedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedDeletedSoda = sodaMapper.toModel(expectedDeletedSodaDTO);
+
+        // when
+        when(sodaRepository.findById(expectedDeletedSodaDTO.getId())).thenReturn(Optional.of(expectedDeletedSoda));
+        doNothing().when(sodaRepository).deleteById(expectedDeletedSodaDTO.getId());
+
+        // then
+        sodaService.deleteById(expectedDeletedSodaDTO.getId());
+
+        verify(sodaRepository, times(1)).findById(expectedDeletedSodaDTO.getId());
+        verify(sodaRepository, times(1)).deleteById(expectedDeletedSodaDTO.getId());
+        verify(eventPublisher, times(1)).publishEvent(ArgumentMatchers.any(SodaChangedEvent.class));
+        verifyNoInteractions(sodaCache);
+    }
+
+    @Test
+    void whenExclusionIsCalledWithInvalidIdThenExceptionShouldBeThrown() {
+        when(sodaRepository.findById(INVALID_SODA_ID)).thenReturn(Optional.empty());
+
+        assertThrows(SodaNotFoundException.class, () -> sodaService.deleteById(INVALID_SODA_ID));
+    }
+
+    @Test
+    void whenIncrementIsCalledThenIncrementSodaStock() throws SodaNotFoundException, SodaStockExceededException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+
+        int quantityToIncrement = 10;
+        int expectedQuantityAfterIncrement = expectedSodaDTO.getQuantity() + quantityToIncrement;
+        expectedSoda.setQuantity(expectedQuantityAfterIncrement);
+
+        // when
+        when(sodaRepository.incrementQuantity(expectedSodaDTO.getId(), quantityToIncrement)).thenReturn(1);
+        when(sodaRepository.findById(expectedSodaDTO.getId())).thenReturn(Optional.of(expectedSoda));
+
+        // then
+        SodaDTO incrementedSodaDTO = sodaService.increment(expectedSodaDTO.getId(), quantityToIncrement);
+
+        assertThat(expectedQuantityAfterIncrement, equalTo(incrementedSodaDTO.getQuantity()));
+        assertThat(expectedQuantityAfterIncrement, lessThan(expectedSodaDTO.getMax()));
+        verify(sodaRepository, never()).save(ArgumentMatchers.any(Soda.class));
+        verify(stockLedger).record(expectedSodaDTO.getId(), quantityToIncrement, expectedQuantityAfterIncrement, StockMovementReason.INCREMENT);
+        verify(sodaLockManager).lockUntilCompletion(Collections.singleton(expectedSodaDTO.getId()));
+
+        ArgumentCaptor<SodaChangedEvent> publishedEvent = ArgumentCaptor.forClass(SodaChangedEvent.class);
+        verify(eventPublisher).publishEvent(publishedEvent.capture());
+        assertThat(publishedEvent.getValue().getChangeType(), is(equalTo(SodaChangeType.STOCK_CHANGED)));
+        assertThat(publishedEvent.getValue().getQuantityDelta(), is(equalTo(quantityToIncrement)));
+    }
+
+    @Test
+    void whenIncrementIsGreatherThanMaxThenThrowException() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        int quantityToIncrement = 80;
+
+        // when
+        when(sodaRepository.incrementQuantity(expectedSodaDTO.getId(), quantityToIncrement)).thenReturn(0);
+        when(sodaRepository.existsById(expectedSodaDTO.getId())).thenReturn(true);
+
+        // then
+        assertThrows(SodaStockExceededException.class, () -> sodaService.increment(expectedSodaDTO.getId(), quantityToIncrement));
+    }
+
+    @Test
+    void whenIncrementAfterSumIsGreatherThanMaxThenThrowException() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        int quantityToIncrement = 45;
+
+        // when
+        when(sodaRepository.incrementQuantity(expectedSodaDTO.getId(), quantityToIncrement)).thenReturn(0);
+        when(sodaRepository.existsById(expectedSodaDTO.getId())).thenReturn(true);
+
+        // then
+        assertThrows(SodaStockExceededException.class, () -> sodaService.increment(expectedSodaDTO.getId(), quantityToIncrement));
+    }
+
+    @Test
+    void whenIncrementIsCalledWithInvalidIdThenThrowException() {
+        int quantityToIncrement = 10;
+
+        when(sodaRepository.incrementQuantity(INVALID_SODA_ID, quantityToIncrement)).thenReturn(0);
+        when(sodaRepository.existsById(INVALID_SODA_ID)).thenReturn(false);
+
+        assertThrows(SodaNotFoundException.class, () -> sodaService.increment(INVALID_SODA_ID, quantityToIncrement));
+    }
+
+    @Test
+    void whenDecrementIsCalledThenDecrementSodaStock() throws SodaNotFoundException, SodaStockExceededException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+
+        int quantityToDecrement = 5;
+        int expectedQuantityAfterDecrement = expectedSodaDTO.getQuantity() - quantityToDecrement;
+        expectedSoda.setQuantity(expectedQuantityAfterDecrement);
+
+        // when
+        when(sodaRepository.decrementQuantity(expectedSodaDTO.getId(), quantityToDecrement)).thenReturn(1);
+        when(sodaRepository.findById(expectedSodaDTO.getId())).thenReturn(Optional.of(expectedSoda));
+
+        // then
+        SodaDTO decrementedSodaDTO = sodaService.decrement(expectedSodaDTO.getId(), quantityToDecrement);
+
+        assertThat(expectedQuantityAfterDecrement, is(equalTo(decrementedSodaDTO.getQuantity())));
+        assertThat(expectedQuantityAfterDecrement, is(greaterThan(0)));
+    }
+
+    @Test
+    void whenDecrementIsCalledToEmptyStockThenEmptySodaStock() throws SodaNotFoundException, SodaStockExceededException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+
+        int quantityToDecrement = 10;
+        int expectedQuantityAfterDecrement = expectedSodaDTO.getQuantity() - quantityToDecrement;
+        expectedSoda.setQuantity(expectedQuantityAfterDecrement);
+
+        // when
+        when(sodaRepository.decrementQuantity(expectedSodaDTO.getId(), quantityToDecrement)).thenReturn(1);
+        when(sodaRepository.findById(expectedSodaDTO.getId())).thenReturn(Optional.of(expectedSoda));
+
+        // then
+        SodaDTO decrementedSodaDTO = sodaService.decrement(expectedSodaDTO.getId(), quantityToDecrement);
+
+        assertThat(expectedQuantityAfterDecrement, is(equalTo(0)));
+        assertThat(expectedQuantityAfterDecrement, is(equalTo(decrementedSodaDTO.getQuantity())));
+    }
+
+    @Test
+    void whenDecrementIsLowerThanZeroThenThrowException() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        int quantityToDecrement = 80;
+
+        // when
+        when(sodaRepository.decrementQuantity(expectedSodaDTO.getId(), quantityToDecrement)).thenReturn(0);
+        when(sodaRepository.existsById(expectedSodaDTO.getId())).thenReturn(true);
+
+        // then
+        assertThrows(SodaStockExceededException.class, () -> sodaService.decrement(expectedSodaDTO.getId(), quantityToDecrement));
+    }
+
+    @Test
+    void whenDecrementIsCalledWithInvalidIdThenThrowException() {
+        int quantityToDecrement = 10;
+
+        when(sodaRepository.decrementQuantity(INVALID_SODA_ID, quantityToDecrement)).thenReturn(0);
+        when(sodaRepository.existsById(INVALID_SODA_ID)).thenReturn(false);
+
+        assertThrows(SodaNotFoundException.class, () -> sodaService.decrement(INVALID_SODA_ID, quantityToDecrement));
+    }
+
+    @Test
+    void whenWriteBehindIsEnabledThenIncrementDoesNotTouchTheRepository() throws SodaNotFoundException, SodaStockExceededException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        int quantityToIncrement = 10;
+        expectedSodaDTO.setQuantity(expectedSodaDTO.getQuantity() + quantityToIncrement);
+
+        // when
+        when(writeBehindStockEngine.isEnabled()).thenReturn(true);
+        when(writeBehindStockEngine.increment(expectedSodaDTO.getId(), quantityToIncrement)).thenReturn(expectedSodaDTO);
+
+        // then
+        SodaDTO incrementedSodaDTO = sodaService.increment(expectedSodaDTO.getId(), quantityToIncrement);
+
+        assertThat(incrementedSodaDTO, is(equalTo(expectedSodaDTO)));
+        verifyNoInteractions(sodaRepository);
+    }
+
+    @Test
+    void whenStockAdjustmentsAreValidThenAllOfThemAreApplied() throws SodaNotFoundException, SodaStockExceededException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(expectedSodaDTO.getId(), 20),
+                new StockAdjustmentDTO(expectedSodaDTO.getId(), -5));
+
+        // when
+        when(sodaRepository.findAllById(Collections.singleton(expectedSodaDTO.getId()))).thenReturn(Collections.singletonList(expectedSoda));
+
+        // then
+        List<StockAdjustmentResultDTO> results = sodaService.adjustStock(adjustments, StockAdjustmentMode.ALL_OR_NOTHING);
+
+        assertThat(results.get(0).getSoda().getQuantity(), is(equalTo(expectedSodaDTO.getQuantity() + 20)));
+        assertThat(results.get(1).getSoda().getQuantity(), is(equalTo(expectedSodaDTO.getQuantity() + 15)));
+        assertThat(expectedSoda.getQuantity(), is(equalTo(expectedSodaDTO.getQuantity() + 15)));
+        verify(sodaRepository, times(1)).saveAll(anyCollection());
+    }
+
+    @Test
+    void whenOneStockAdjustmentExceedsMaxInAllOrNothingModeThenThrowException() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(expectedSodaDTO.getId(), 20),
+                new StockAdjustmentDTO(expectedSodaDTO.getId(), 80));
+
+        // when
+        when(sodaRepository.findAllById(Collections.singleton(expectedSodaDTO.getId()))).thenReturn(Collections.singletonList(expectedSoda));
+
+        // then
+        assertThrows(SodaStockExceededException.class, () -> sodaService.adjustStock(adjustments, StockAdjustmentMode.ALL_OR_NOTHING));
+        verify(sodaRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void whenStockAdjustmentsAreRejectedInBestEffortModeThenTheOthersAreApplied() throws SodaNotFoundException, SodaStockExceededException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(INVALID_SODA_ID + 1, 5),
+                new StockAdjustmentDTO(INVALID_SODA_ID, 80),
+                new StockAdjustmentDTO(INVALID_SODA_ID, -5));
+
+        // when
+        when(sodaRepository.findAllById(anySet())).thenReturn(Collections.singletonList(expectedSoda));
+
+        // then
+        List<StockAdjustmentResultDTO> results = sodaService.adjustStock(adjustments, StockAdjustmentMode.BEST_EFFORT);
+
+        assertThat(results.get(0).getStatus(), is(equalTo(StockAdjustmentStatus.NOT_FOUND)));
+        assertThat(results.get(1).getStatus(), is(equalTo(StockAdjustmentStatus.STOCK_EXCEEDED)));
+        assertThat(results.get(2).getStatus(), is(equalTo(StockAdjustmentStatus.APPLIED)));
+        assertThat(expectedSoda.getQuantity(), is(equalTo(expectedSodaDTO.getQuantity() - 5)));
+    }
+
+    @Test
+    void whenCoalescedDeltasAreAppliedThenMovementsKeepTheirIncrementAndDecrementReasons() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+        List<StockAdjustmentDTO> deltas = Arrays.asList(
+                new StockAdjustmentDTO(expectedSodaDTO.getId(), 3),
+                new StockAdjustmentDTO(expectedSodaDTO.getId(), -2));
+
+        // when
+        when(sodaRepository.findAllById(anySet())).thenReturn(Collections.singletonList(expectedSoda));
+
+        // then
+        List<StockAdjustmentResultDTO> results = sodaService.applyCoalescedDeltas(deltas);
+
+        assertThat(results, everyItem(hasProperty("status", is(StockAdjustmentStatus.APPLIED))));
+        assertThat(expectedSoda.getQuantity(), is(equalTo(expectedSodaDTO.getQuantity() + 1)));
+        verify(stockLedger).recordAll(argThat(movements -> movements.stream()
+                .map(StockMovement::getReason)
+                .collect(Collectors.toList())
+                .equals(Arrays.asList(StockMovementReason.INCREMENT, StockMovementReason.DECREMENT))));
+    }
+}
@@ -0,0 +1,111 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.enums.StockAlertType;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.event.StockAlertEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockIndexTest {
+
+    private static final double LOW_STOCK_RATIO = 0.2;
+
+    @Mock
+    private SodaService sodaService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LowStockIndex lowStockIndex;
+
+    @BeforeEach
+    void setUp() {
+        lowStockIndex = new LowStockIndex(sodaService, eventPublisher, LOW_STOCK_RATIO);
+        lowStockIndex.start();
+    }
+
+    @Test
+    void whenStockDropsBelowTheRatioThenALowStockAlertIsPublished() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().quantity(40).build().toSodaDTO();
+        lowStockIndex.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+
+        // when
+        SodaDTO decrementedSodaDTO = SodaDTOBuilder.builder().quantity(5).build().toSodaDTO();
+        lowStockIndex.onSodaChanged(SodaChangedEvent.stockChanged(decrementedSodaDTO, -35));
+
+        // then
+        ArgumentCaptor<StockAlertEvent> alertCaptor = ArgumentCaptor.forClass(StockAlertEvent.class);
+        verify(eventPublisher).publishEvent(alertCaptor.capture());
+
+        assertThat(alertCaptor.getValue().getAlertType(), is(equalTo(StockAlertType.LOW_STOCK)));
+        assertThat(alertCaptor.getValue().getFillRatio(), is(equalTo(0.1)));
+        assertThat(lowStockIndex.lowStock(10), contains(decrementedSodaDTO));
+    }
+
+    @Test
+    void whenStockIsRefilledAboveTheRatioThenARestoredAlertIsPublished() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().quantity(0).build().toSodaDTO();
+        lowStockIndex.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+
+        // when
+        SodaDTO incrementedSodaDTO = SodaDTOBuilder.builder().quantity(30).build().toSodaDTO();
+        lowStockIndex.onSodaChanged(SodaChangedEvent.stockChanged(incrementedSodaDTO, 30));
+
+        // then
+        ArgumentCaptor<StockAlertEvent> alertCaptor = ArgumentCaptor.forClass(StockAlertEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(alertCaptor.capture());
+
+        assertThat(alertCaptor.getAllValues().get(0).getAlertType(), is(equalTo(StockAlertType.LOW_STOCK)));
+        assertThat(alertCaptor.getAllValues().get(1).getAlertType(), is(equalTo(StockAlertType.RESTORED)));
+        assertThat(lowStockIndex.lowStock(10), is(empty()));
+    }
+
+    @Test
+    void whenStockChangesWithoutCrossingTheRatioThenNoAlertIsPublished() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().quantity(40).build().toSodaDTO();
+        lowStockIndex.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+
+        // when
+        SodaDTO decrementedSodaDTO = SodaDTOBuilder.builder().quantity(30).build().toSodaDTO();
+        lowStockIndex.onSodaChanged(SodaChangedEvent.stockChanged(decrementedSodaDTO, -10));
+
+        // then
+        verify(eventPublisher, never()).publishEvent(any(StockAlertEvent.class));
+    }
+
+    @Test
+    void whenLowStockIsCalledThenSodasAreOrderedByFillRatioAndDeletedOnesAreLeftOut() {
+        // given
+        SodaDTO emptySoda = SodaDTOBuilder.builder().id(1L).name("Pepsi").quantity(0).build().toSodaDTO();
+        SodaDTO almostEmptySoda = SodaDTOBuilder.builder().id(2L).name("Fanta").quantity(5).build().toSodaDTO();
+        SodaDTO deletedSoda = SodaDTOBuilder.builder().id(3L).name("Sprite").quantity(1).build().toSodaDTO();
+        lowStockIndex.onSodaChanged(SodaChangedEvent.created(almostEmptySoda));
+        lowStockIndex.onSodaChanged(SodaChangedEvent.created(emptySoda));
+        lowStockIndex.onSodaChanged(SodaChangedEvent.created(deletedSoda));
+
+        // when
+        lowStockIndex.onSodaChanged(SodaChangedEvent.deleted(deletedSoda));
+        List<SodaDTO> lowStockSodas = lowStockIndex.lowStock(10);
+
+        // then
+        assertThat(lowStockSodas, contains(emptySoda, almostEmptySoda));
+    }
+}
@@ -0,0 +1,195 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaSearchCriteriaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentMode;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentStatus;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaSortNotSupportedException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.store.PrimitiveSodaStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PrimitiveSodaServiceTest {
+
+    private static final int CAPACITY = 16;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PrimitiveSodaStore sodaStore;
+
+    private PrimitiveSodaService sodaService;
+
+    @BeforeEach
+    void setUp() {
+        sodaStore = new PrimitiveSodaStore(CAPACITY);
+        sodaService = new PrimitiveSodaService(sodaStore, eventPublisher, new SodaChangeGate());
+    }
+
+    @Test
+    void whenSodaIsCreatedThenItCanBeFoundByName() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().id(null).build().toSodaDTO();
+
+        // when
+        SodaDTO createdSodaDTO = sodaService.createSoda(sodaDTO);
+
+        // then
+        assertThat(createdSodaDTO.getId(), is(equalTo(1L)));
+        assertThat(sodaService.findByName(sodaDTO.getName()), is(equalTo(createdSodaDTO)));
+        verify(eventPublisher).publishEvent(any(SodaChangedEvent.class));
+    }
+
+    @Test
+    void whenAlreadyRegisteredSodaIsCreatedThenAnExceptionShouldBeThrown() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        sodaService.createSoda(sodaDTO);
+
+        // then
+        assertThrows(SodaAlreadyRegisteredException.class, () -> sodaService.createSoda(sodaDTO));
+    }
+
+    @Test
+    void whenBatchContainsARegisteredNameThenNoSodaIsCreated() throws Exception {
+        // given
+        SodaDTO registeredSodaDTO = SodaDTOBuilder.builder().name("Pepsi").build().toSodaDTO();
+        sodaService.createSoda(registeredSodaDTO);
+        SodaDTO newSodaDTO = SodaDTOBuilder.builder().name("Fanta").build().toSodaDTO();
+
+        // then
+        assertThrows(SodaAlreadyRegisteredException.class, () -> sodaService.createSodas(Arrays.asList(newSodaDTO, registeredSodaDTO)));
+        assertThat(sodaService.listAll(), contains(hasProperty("name", is("Pepsi"))));
+    }
+
+    @Test
+    void whenIncrementIsCalledThenStockIsIncremented() throws Exception {
+        // given
+        SodaDTO createdSodaDTO = sodaService.createSoda(SodaDTOBuilder.builder().build().toSodaDTO());
+
+        // when
+        SodaDTO incrementedSodaDTO = sodaService.increment(createdSodaDTO.getId(), 15);
+
+        // then
+        assertThat(incrementedSodaDTO.getQuantity(), is(equalTo(createdSodaDTO.getQuantity() + 15)));
+        assertThat(sodaStore.quantity(createdSodaDTO.getId()), is(equalTo(createdSodaDTO.getQuantity() + 15)));
+    }
+
+    @Test
+    void whenDecrementIsCalledBeyondTheStockThenAnExceptionShouldBeThrown() throws Exception {
+        // given
+        SodaDTO createdSodaDTO = sodaService.createSoda(SodaDTOBuilder.builder().build().toSodaDTO());
+
+        // then
+        assertThrows(SodaStockExceededException.class, () -> sodaService.decrement(createdSodaDTO.getId(), createdSodaDTO.getQuantity() + 1));
+        assertThat(sodaStore.quantity(createdSodaDTO.getId()), is(equalTo(createdSodaDTO.getQuantity())));
+    }
+
+    @Test
+    void whenDeletedSodaIsIncrementedThenAnExceptionShouldBeThrown() throws Exception {
+        // given
+        SodaDTO createdSodaDTO = sodaService.createSoda(SodaDTOBuilder.builder().build().toSodaDTO());
+
+        // when
+        sodaService.deleteById(createdSodaDTO.getId());
+
+        // then
+        assertThrows(SodaNotFoundException.class, () -> sodaService.increment(createdSodaDTO.getId(), 1));
+        assertThrows(SodaNotFoundException.class, () -> sodaService.findByName(createdSodaDTO.getName()));
+        assertThat(sodaService.listAll(), is(empty()));
+    }
+
+    @Test
+    void whenAllOrNothingAdjustmentIsRejectedThenAppliedDeltasAreReverted() throws Exception {
+        // given
+        SodaDTO createdSodaDTO = sodaService.createSoda(SodaDTOBuilder.builder().build().toSodaDTO());
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(createdSodaDTO.getId(), 5),
+                new StockAdjustmentDTO(99L, 1));
+
+        // then
+        assertThrows(SodaNotFoundException.class, () -> sodaService.adjustStock(adjustments, StockAdjustmentMode.ALL_OR_NOTHING));
+        assertThat(sodaStore.quantity(createdSodaDTO.getId()), is(equalTo(createdSodaDTO.getQuantity())));
+    }
+
+    @Test
+    void whenBestEffortAdjustmentIsRejectedThenOtherDeltasAreApplied() throws Exception {
+        // given
+        SodaDTO createdSodaDTO = sodaService.createSoda(SodaDTOBuilder.builder().build().toSodaDTO());
+        List<StockAdjustmentDTO> adjustments = Arrays.asList(
+                new StockAdjustmentDTO(createdSodaDTO.getId(), 5),
+                new StockAdjustmentDTO(99L, 1));
+
+        // when
+        List<StockAdjustmentResultDTO> results = sodaService.adjustStock(adjustments, StockAdjustmentMode.BEST_EFFORT);
+
+        // then
+        assertThat(results.get(0).getStatus(), is(equalTo(StockAdjustmentStatus.APPLIED)));
+        assertThat(results.get(1).getStatus(), is(equalTo(StockAdjustmentStatus.NOT_FOUND)));
+        assertThat(sodaStore.quantity(createdSodaDTO.getId()), is(equalTo(createdSodaDTO.getQuantity() + 5)));
+    }
+
+    @Test
+    void whenSearchIsCalledThenMatchingSodasArePaged() throws Exception {
+        // given
+        sodaService.createSoda(SodaDTOBuilder.builder().name("Pepsi").type(SodaType.COCA).build().toSodaDTO());
+        sodaService.createSoda(SodaDTOBuilder.builder().name("Pepsi Twist").type(SodaType.LIMAO).build().toSodaDTO());
+        sodaService.createSoda(SodaDTOBuilder.builder().name("Fanta").type(SodaType.LARANJA).build().toSodaDTO());
+        SodaSearchCriteriaDTO criteria = SodaSearchCriteriaDTO.builder().namePrefix("Pepsi").build();
+
+        // when
+        Page<SodaDTO> firstPage = sodaService.search(criteria, PageRequest.of(0, 1));
+
+        // then
+        assertThat(firstPage.getTotalElements(), is(equalTo(2L)));
+        assertThat(firstPage.getContent(), contains(hasProperty("name", is("Pepsi"))));
+    }
+
+    @Test
+    void whenListPageIsCalledWithASortThenSodasArePagedInThatOrder() throws Exception {
+        // given
+        sodaService.createSoda(SodaDTOBuilder.builder().name("Pepsi").quantity(5).build().toSodaDTO());
+        sodaService.createSoda(SodaDTOBuilder.builder().name("Fanta").quantity(5).build().toSodaDTO());
+        sodaService.createSoda(SodaDTOBuilder.builder().name("Sprite").quantity(9).build().toSodaDTO());
+
+        // when
+        Page<SodaDTO> firstPage = sodaService.listPage(PageRequest.of(0, 2, Sort.by(Sort.Order.desc("quantity"), Sort.Order.asc("name"))));
+
+        // then
+        assertThat(firstPage.getTotalElements(), is(equalTo(3L)));
+        assertThat(firstPage.getContent(), contains(hasProperty("name", is("Sprite")), hasProperty("name", is("Fanta"))));
+    }
+
+    @Test
+    void whenListPageIsCalledWithAnUnknownSortPropertyThenAnExceptionShouldBeThrown() {
+        // then
+        assertThrows(SodaSortNotSupportedException.class,
+                () -> sodaService.listPage(PageRequest.of(0, 2, Sort.by("version"))));
+    }
+}
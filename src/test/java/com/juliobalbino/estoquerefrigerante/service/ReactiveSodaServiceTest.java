@@ -0,0 +1,179 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.cache.SodaCache;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.exception.SodaAlreadyRegisteredException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import com.juliobalbino.estoquerefrigerante.mapper.SodaMapper;
+import com.juliobalbino.estoquerefrigerante.repository.ReactiveSodaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveSodaServiceTest {
+
+    private static final long INVALID_SODA_ID = 1L;
+
+    @Mock
+    private ReactiveSodaRepository reactiveSodaRepository;
+
+    @Mock
+    private WriteBehindStockEngine writeBehindStockEngine;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private SodaCache sodaCache;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SodaMapper sodaMapper = SodaMapper.INSTANCE;
+
+    @Spy
+    private SodaChangeGate sodaChangeGate = new SodaChangeGate();
+
+    @InjectMocks
+    private ReactiveSodaService reactiveSodaService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(ArgumentMatchers.any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void whenSodaInformedThenItShouldBeCreated() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSavedSoda = sodaMapper.toModel(expectedSodaDTO);
+
+        // when
+        when(reactiveSodaRepository.findByName(expectedSodaDTO.getName())).thenReturn(Mono.empty());
+        when(reactiveSodaRepository.insert(expectedSavedSoda)).thenReturn(Mono.just(expectedSavedSoda));
+
+        // then
+        SodaDTO createdSodaDTO = reactiveSodaService.createSoda(expectedSodaDTO).block();
+
+        assertThat(createdSodaDTO.getId(), is(equalTo(expectedSodaDTO.getId())));
+        assertThat(createdSodaDTO.getName(), is(equalTo(expectedSodaDTO.getName())));
+        verifyNoInteractions(sodaCache);
+    }
+
+    @Test
+    void whenAlreadyRegisteredSodaInformedThenAnErrorShouldBeSignalled() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda duplicatedSoda = sodaMapper.toModel(expectedSodaDTO);
+
+        // when
+        when(reactiveSodaRepository.findByName(expectedSodaDTO.getName())).thenReturn(Mono.just(duplicatedSoda));
+
+        // then
+        assertErrorSignalled(reactiveSodaService.createSoda(expectedSodaDTO), SodaAlreadyRegisteredException.class);
+        verify(reactiveSodaRepository, never()).insert(any());
+    }
+
+    @Test
+    void whenNotRegisteredSodaNameIsGivenThenAnErrorShouldBeSignalled() {
+        // given
+        SodaDTO expectedFoundSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        // when
+        when(reactiveSodaRepository.findByName(expectedFoundSodaDTO.getName())).thenReturn(Mono.empty());
+
+        // then
+        assertErrorSignalled(reactiveSodaService.findByName(expectedFoundSodaDTO.getName()), SodaNotFoundException.class);
+    }
+
+    @Test
+    void whenIncrementIsCalledThenIncrementSodaStock() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+        int quantityToIncrement = 10;
+        expectedSoda.setQuantity(expectedSodaDTO.getQuantity() + quantityToIncrement);
+
+        // when
+        when(reactiveSodaRepository.incrementQuantity(expectedSodaDTO.getId(), quantityToIncrement)).thenReturn(Mono.just(1));
+        when(reactiveSodaRepository.findById(expectedSodaDTO.getId())).thenReturn(Mono.just(expectedSoda));
+
+        // then
+        SodaDTO incrementedSodaDTO = reactiveSodaService.increment(expectedSodaDTO.getId(), quantityToIncrement).block();
+
+        assertThat(incrementedSodaDTO.getQuantity(), is(equalTo(expectedSodaDTO.getQuantity() + quantityToIncrement)));
+        verify(stockLedger).record(expectedSodaDTO.getId(), quantityToIncrement, expectedSoda.getQuantity(), StockMovementReason.INCREMENT);
+        verifyNoInteractions(sodaCache);
+    }
+
+    @Test
+    void whenIncrementIsGreaterThanMaxThenAnErrorShouldBeSignalled() {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Soda expectedSoda = sodaMapper.toModel(expectedSodaDTO);
+        int quantityToIncrement = 80;
+
+        // when
+        when(reactiveSodaRepository.incrementQuantity(expectedSodaDTO.getId(), quantityToIncrement)).thenReturn(Mono.just(0));
+        when(reactiveSodaRepository.findById(expectedSodaDTO.getId())).thenReturn(Mono.just(expectedSoda));
+
+        // then
+        assertErrorSignalled(reactiveSodaService.increment(expectedSodaDTO.getId(), quantityToIncrement), SodaStockExceededException.class);
+        verifyNoInteractions(sodaCache);
+    }
+
+    @Test
+    void whenDecrementIsCalledWithInvalidIdThenAnErrorShouldBeSignalled() {
+        int quantityToDecrement = 10;
+
+        when(reactiveSodaRepository.decrementQuantity(INVALID_SODA_ID, quantityToDecrement)).thenReturn(Mono.just(0));
+        when(reactiveSodaRepository.findById(INVALID_SODA_ID)).thenReturn(Mono.empty());
+
+        assertErrorSignalled(reactiveSodaService.decrement(INVALID_SODA_ID, quantityToDecrement), SodaNotFoundException.class);
+    }
+
+    @Test
+    void whenWriteBehindIsEnabledThenIncrementIsAppliedInMemory() throws SodaNotFoundException, SodaStockExceededException {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        int quantityToIncrement = 10;
+
+        // when
+        when(writeBehindStockEngine.isEnabled()).thenReturn(true);
+        when(writeBehindStockEngine.increment(expectedSodaDTO.getId(), quantityToIncrement)).thenReturn(expectedSodaDTO);
+
+        // then
+        SodaDTO incrementedSodaDTO = reactiveSodaService.increment(expectedSodaDTO.getId(), quantityToIncrement).block();
+
+        assertThat(incrementedSodaDTO, is(equalTo(expectedSodaDTO)));
+        verifyNoInteractions(reactiveSodaRepository);
+    }
+
+    private static void assertErrorSignalled(Mono<?> mono, Class<? extends Throwable> expectedError) {
+        RuntimeException thrown = assertThrows(RuntimeException.class, mono::block);
+        assertThat(Exceptions.unwrap(thrown), is(instanceOf(expectedError)));
+    }
+}
@@ -0,0 +1,114 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.dto.SodaChangeDTO;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.enums.SodaChangeType;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SodaChangeFeedTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private final SodaChangeFeed.ChangeBuffer changeBuffer = new SodaChangeFeed.ChangeBuffer(BUFFER_SIZE);
+
+    @Test
+    void whenChangesAreAppendedThenTheyAreReadBackInSequenceOrder() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        changeBuffer.append(SodaChangedEvent.created(sodaDTO));
+        changeBuffer.append(SodaChangedEvent.stockChanged(sodaDTO, 5));
+
+        // when
+        SodaChangeFeed.ChangeBuffer.Slice slice = changeBuffer.readAfter(0);
+
+        // then
+        assertThat(slice.isMissedChanges(), is(false));
+        assertThat(sequencesOf(slice), contains(1L, 2L));
+        assertThat(slice.getChanges().get(0).getChangeType(), is(equalTo(SodaChangeType.CREATED)));
+        assertThat(slice.getChanges().get(1).getQuantityDelta(), is(equalTo(5)));
+    }
+
+    @Test
+    void whenResumingFromASequenceThenOnlyLaterChangesAreRead() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        for (int i = 0; i < 3; i++) {
+            changeBuffer.append(SodaChangedEvent.stockChanged(sodaDTO, 1));
+        }
+
+        // when
+        SodaChangeFeed.ChangeBuffer.Slice slice = changeBuffer.readAfter(2);
+
+        // then
+        assertThat(slice.isMissedChanges(), is(false));
+        assertThat(sequencesOf(slice), contains(3L));
+        assertThat(changeBuffer.readAfter(3).getChanges(), is(empty()));
+    }
+
+    @Test
+    void whenResumingFromASequenceNoLongerKeptThenMissedChangesAreReported() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        for (int i = 0; i < BUFFER_SIZE + 2; i++) {
+            changeBuffer.append(SodaChangedEvent.stockChanged(sodaDTO, 1));
+        }
+
+        // when
+        SodaChangeFeed.ChangeBuffer.Slice slice = changeBuffer.readAfter(1);
+
+        // then
+        assertThat(slice.isMissedChanges(), is(true));
+        assertThat(slice.getFirstSequence(), is(equalTo(3L)));
+        assertThat(sequencesOf(slice), contains(3L, 4L, 5L, 6L));
+    }
+
+    @Test
+    void whenResumingFromAnEventIdOfThisFeedThenItsSequenceIsTheCursor() {
+        // given
+        SodaChangeFeed sodaChangeFeed = new SodaChangeFeed(new SimpleMeterRegistry(), BUFFER_SIZE, 1);
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        sodaChangeFeed.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+        sodaChangeFeed.onSodaChanged(SodaChangedEvent.stockChanged(sodaDTO, 1));
+
+        // when
+        long cursor = sodaChangeFeed.resumeCursor(sodaChangeFeed.eventId(1));
+
+        // then
+        assertThat(cursor, is(equalTo(1L)));
+        assertThat(sodaChangeFeed.resumeCursor(null), is(equalTo(2L)));
+        sodaChangeFeed.stop();
+    }
+
+    @Test
+    void whenResumingFromAnEventIdOfAnotherEpochThenTheFeedStartsWithAReset() {
+        // given
+        SodaChangeFeed previousFeed = new SodaChangeFeed(new SimpleMeterRegistry(), BUFFER_SIZE, 1);
+        SodaChangeFeed sodaChangeFeed = new SodaChangeFeed(new SimpleMeterRegistry(), BUFFER_SIZE, 1);
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        sodaChangeFeed.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+        sodaChangeFeed.onSodaChanged(SodaChangedEvent.stockChanged(sodaDTO, 1));
+
+        // when
+        long cursor = sodaChangeFeed.resumeCursor(previousFeed.eventId(1));
+
+        // then
+        assertThat(cursor, is(equalTo(-1L)));
+        assertThat(sodaChangeFeed.resumeCursor("1"), is(equalTo(-1L)));
+        assertThat(sodaChangeFeed.resumeCursor(sodaChangeFeed.eventId(3)), is(equalTo(-1L)));
+        previousFeed.stop();
+        sodaChangeFeed.stop();
+    }
+
+    private static List<Long> sequencesOf(SodaChangeFeed.ChangeBuffer.Slice slice) {
+        return slice.getChanges().stream().map(SodaChangeDTO::getSequence).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,96 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SodaNameIndexTest {
+
+    private static final int MERGE_THRESHOLD = 2;
+
+    @Mock
+    private SodaService sodaService;
+
+    private SodaNameIndex sodaNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<SodaDTO> consumer = invocation.getArgument(0);
+            Stream.of("Pepsi", "Fanta", "Pepsi Twist", "Guarana")
+                    .map(name -> SodaDTOBuilder.builder().name(name).build().toSodaDTO())
+                    .forEach(consumer);
+            return null;
+        }).when(sodaService).streamAll(any());
+        sodaNameIndex = new SodaNameIndex(sodaService, MERGE_THRESHOLD);
+        sodaNameIndex.start();
+    }
+
+    @Test
+    void whenSuggestIsCalledThenNamesWithThePrefixAreReturnedIgnoringCase() {
+        // when
+        assertThat(sodaNameIndex.suggest("pep", 10), Matchers.contains("Pepsi", "Pepsi Twist"));
+        assertThat(sodaNameIndex.suggest("PEPSI T", 10), Matchers.contains("Pepsi Twist"));
+        assertThat(sodaNameIndex.suggest("Coca", 10), is(empty()));
+    }
+
+    @Test
+    void whenSuggestIsCalledWithALimitThenOnlyTheFirstNamesAreReturned() {
+        // when
+        assertThat(sodaNameIndex.suggest("", 2), Matchers.contains("Fanta", "Guarana"));
+    }
+
+    @Test
+    void whenSodasAreCreatedThenTheyAreSuggestedBeforeAndAfterBeingMerged() {
+        // given
+        SodaDTO pepsiBlack = SodaDTOBuilder.builder().name("Pepsi Black").build().toSodaDTO();
+        SodaDTO pepino = SodaDTOBuilder.builder().name("Pepino").build().toSodaDTO();
+
+        // when
+        sodaNameIndex.onSodaChanged(SodaChangedEvent.created(pepsiBlack));
+
+        // then
+        assertThat(sodaNameIndex.suggest("pep", 10), Matchers.contains("Pepsi", "Pepsi Black", "Pepsi Twist"));
+
+        // when
+        sodaNameIndex.onSodaChanged(SodaChangedEvent.created(pepino));
+
+        // then
+        assertThat(sodaNameIndex.suggest("pep", 10), Matchers.contains("Pepino", "Pepsi", "Pepsi Black", "Pepsi Twist"));
+        assertThat(sodaNameIndex.size(), is(equalTo(6)));
+    }
+
+    @Test
+    void whenSodasAreDeletedThenTheyAreNoLongerSuggested() {
+        // given
+        SodaDTO pepsi = SodaDTOBuilder.builder().name("Pepsi").build().toSodaDTO();
+        SodaDTO fanta = SodaDTOBuilder.builder().name("Fanta").build().toSodaDTO();
+
+        // when
+        sodaNameIndex.onSodaChanged(SodaChangedEvent.deleted(pepsi));
+
+        // then
+        assertThat(sodaNameIndex.suggest("pep", 10), Matchers.contains("Pepsi Twist"));
+
+        // when
+        sodaNameIndex.onSodaChanged(SodaChangedEvent.deleted(fanta));
+
+        // then
+        assertThat(sodaNameIndex.suggest("", 10), Matchers.contains("Guarana", "Pepsi Twist"));
+        assertThat(sodaNameIndex.size(), is(equalTo(2)));
+    }
+}
@@ -0,0 +1,198 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.concurrency.SodaChangeGate;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAggregateDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockStatisticsDTO;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import com.juliobalbino.estoquerefrigerante.event.SodaChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SodaStatisticsTest {
+
+    private static final double LOW_STOCK_RATIO = 0.2;
+
+    @Mock
+    private SodaService sodaService;
+
+    private final SodaChangeGate sodaChangeGate = new SodaChangeGate();
+
+    private SodaStatistics sodaStatistics;
+
+    @BeforeEach
+    void setUp() {
+        sodaStatistics = new SodaStatistics(sodaService, sodaChangeGate, new SimpleMeterRegistry(), LOW_STOCK_RATIO);
+        sodaStatistics.start();
+    }
+
+    @Test
+    void whenSodaIsCreatedThenItIsAddedToItsTypeAndBrand() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+
+        // when
+        sodaStatistics.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+
+        // then
+        StockStatisticsDTO statistics = sodaStatistics.snapshot();
+        StockAggregateDTO typeAggregate = aggregateOf(statistics, sodaDTO.getType());
+
+        assertThat(typeAggregate.getSodas(), is(equalTo(1L)));
+        assertThat(typeAggregate.getUnits(), is(equalTo((long) sodaDTO.getQuantity())));
+        assertThat(typeAggregate.getCapacity(), is(equalTo((long) sodaDTO.getMax())));
+        assertThat(statistics.getByBrand().get(0).getKey(), is(equalTo(sodaDTO.getBrand())));
+        assertThat(statistics.getTotal().getUnits(), is(equalTo((long) sodaDTO.getQuantity())));
+        assertThat(sodaStatistics.unitsOf(sodaDTO.getType()), is(equalTo((long) sodaDTO.getQuantity())));
+    }
+
+    @Test
+    void whenStockDropsBelowTheRatioThenTheSodaCountsAsLowStock() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        sodaStatistics.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+        int quantityToDecrement = sodaDTO.getQuantity();
+
+        // when
+        SodaDTO decrementedSodaDTO = SodaDTOBuilder.builder().quantity(0).build().toSodaDTO();
+        sodaStatistics.onSodaChanged(SodaChangedEvent.stockChanged(decrementedSodaDTO, -quantityToDecrement));
+
+        // then
+        StockAggregateDTO typeAggregate = aggregateOf(sodaStatistics.snapshot(), sodaDTO.getType());
+
+        assertThat(typeAggregate.getUnits(), is(equalTo(0L)));
+        assertThat(typeAggregate.getLowStock(), is(equalTo(1L)));
+        assertThat(typeAggregate.getFillRatio(), is(equalTo(0.0)));
+    }
+
+    @Test
+    void whenSodaIsDeletedThenItIsRemovedFromTheAggregates() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        sodaStatistics.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+
+        // when
+        sodaStatistics.onSodaChanged(SodaChangedEvent.deleted(sodaDTO));
+
+        // then
+        StockStatisticsDTO statistics = sodaStatistics.snapshot();
+
+        assertThat(aggregateOf(statistics, sodaDTO.getType()).getSodas(), is(equalTo(0L)));
+        assertThat(statistics.getTotal().getLowStock(), is(equalTo(0L)));
+        assertThat(statistics.getByBrand(), is(empty()));
+    }
+
+    @Test
+    void whenRecomputeIsCalledThenTheCatalogAggregatesReplaceTheIncrementalOnes() {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        sodaStatistics.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+
+        // when
+        StockStatisticsDTO recomputed = sodaStatistics.recompute();
+
+        // then
+        assertThat(recomputed.getTotal().getSodas(), is(equalTo(0L)));
+        verify(sodaService, times(2)).streamAll(any());
+    }
+
+    @Test
+    void whenRecomputeRacesACommittingChangeThenTheChangeIsCountedOnce() throws Exception {
+        // given
+        SodaDTO sodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        doAnswer(invocation -> {
+            invocation.<Consumer<SodaDTO>>getArgument(0).accept(sodaDTO);
+            return null;
+        }).when(sodaService).streamAll(any());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sodaStatistics.onSodaChanged(SodaChangedEvent.created(sodaDTO));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // when
+            CompletableFuture<StockStatisticsDTO> recomputed = CompletableFuture.supplyAsync(sodaStatistics::recompute);
+            assertThrows(TimeoutException.class, () -> recomputed.get(200, TimeUnit.MILLISECONDS));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            recomputed.get(5, TimeUnit.SECONDS);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then
+        assertThat(aggregateOf(sodaStatistics.snapshot(), sodaDTO.getType()).getSodas(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenRecomputeScansTheCatalogThenChangesAreHeldOff() throws Exception {
+        // given
+        CompletableFuture<Long> changeEntered = new CompletableFuture<>();
+
+        // when
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> changeEntered.complete(sodaChangeGate.enter()));
+            assertThrows(TimeoutException.class, () -> changeEntered.get(200, TimeUnit.MILLISECONDS));
+            return null;
+        }).when(sodaService).streamAll(any());
+
+        // then
+        sodaStatistics.recompute();
+
+        sodaChangeGate.exit(changeEntered.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void whenTheCatalogIsScannedThenSodasAreAggregatedByTypeAndBrand() {
+        // given
+        SodaDTO pepsi = SodaDTOBuilder.builder().quantity(40).build().toSodaDTO();
+        SodaDTO lowPepsi = SodaDTOBuilder.builder().id(2L).name("Pepsi Twist").quantity(5).build().toSodaDTO();
+
+        // when
+        doAnswer(invocation -> {
+            Consumer<SodaDTO> consumer = invocation.getArgument(0);
+            consumer.accept(pepsi);
+            consumer.accept(lowPepsi);
+            return null;
+        }).when(sodaService).streamAll(any());
+
+        // then
+        StockStatisticsDTO recomputed = sodaStatistics.recompute();
+        StockAggregateDTO typeAggregate = aggregateOf(recomputed, pepsi.getType());
+
+        assertThat(typeAggregate.getSodas(), is(equalTo(2L)));
+        assertThat(typeAggregate.getUnits(), is(equalTo(45L)));
+        assertThat(typeAggregate.getCapacity(), is(equalTo((long) pepsi.getMax() + lowPepsi.getMax())));
+        assertThat(typeAggregate.getLowStock(), is(equalTo(1L)));
+        assertThat(recomputed.getByBrand(), hasSize(1));
+        assertThat(recomputed.getByBrand().get(0).getUnits(), is(equalTo(45L)));
+    }
+
+    private static StockAggregateDTO aggregateOf(StockStatisticsDTO statistics, SodaType type) {
+        return statistics.getByType()
+                .stream()
+                .filter(aggregate -> aggregate.getKey().equals(type.name()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+}
@@ -0,0 +1,119 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.builder.SodaDTOBuilder;
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentDTO;
+import com.juliobalbino.estoquerefrigerante.dto.StockAdjustmentResultDTO;
+import com.juliobalbino.estoquerefrigerante.enums.StockAdjustmentStatus;
+import com.juliobalbino.estoquerefrigerante.exception.SodaNotFoundException;
+import com.juliobalbino.estoquerefrigerante.exception.SodaStockExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockCoalescerTest {
+
+    @Mock
+    private SodaService sodaService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StockCoalescer stockCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        stockCoalescer = new StockCoalescer(sodaService, meterRegistry, true, Duration.ofMillis(200), 1);
+        stockCoalescer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        stockCoalescer.stop();
+    }
+
+    @Test
+    void whenDeltasArriveWithinTheWindowThenTheyAreAppliedInOneAdjustment() throws Exception {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Long id = expectedSodaDTO.getId();
+        StockAdjustmentResultDTO applied = StockAdjustmentResultDTO.builder()
+                .id(id)
+                .delta(-5)
+                .status(StockAdjustmentStatus.APPLIED)
+                .soda(expectedSodaDTO)
+                .build();
+        StockAdjustmentResultDTO rejected = StockAdjustmentResultDTO.builder()
+                .id(id)
+                .delta(-500)
+                .status(StockAdjustmentStatus.STOCK_EXCEEDED)
+                .build();
+
+        // when
+        when(sodaService.applyCoalescedDeltas(Arrays.asList(new StockAdjustmentDTO(id, -5), new StockAdjustmentDTO(id, -500))))
+                .thenReturn(Arrays.asList(applied, rejected));
+
+        // then
+        CompletableFuture<SodaDTO> appliedFuture = stockCoalescer.submit(id, -5);
+        CompletableFuture<SodaDTO> rejectedFuture = stockCoalescer.submit(id, -500);
+
+        assertThat(appliedFuture.get(), is(equalTo(expectedSodaDTO)));
+        ExecutionException exception = assertThrows(ExecutionException.class, rejectedFuture::get);
+        assertThat(exception.getCause(), is(instanceOf(SodaStockExceededException.class)));
+        verify(sodaService, times(1)).applyCoalescedDeltas(anyList());
+    }
+
+    @Test
+    void whenSodaIsNotFoundThenTheCallerGetsNotFound() throws Exception {
+        // given
+        long invalidId = 1L;
+        StockAdjustmentResultDTO notFound = StockAdjustmentResultDTO.builder()
+                .id(invalidId)
+                .delta(10)
+                .status(StockAdjustmentStatus.NOT_FOUND)
+                .build();
+
+        // when
+        when(sodaService.applyCoalescedDeltas(anyList())).thenReturn(Collections.singletonList(notFound));
+
+        // then
+        assertThrows(SodaNotFoundException.class, () -> stockCoalescer.increment(invalidId, 10));
+        Timer timer = meterRegistry.find(SodaService.SERVICE_METRIC)
+                .tags("operation", "increment", "exception", "SodaNotFoundException")
+                .timer();
+        assertThat(timer, is(notNullValue()));
+        assertThat(timer.count(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenTheCoalescerIsShuttingDownThenTheDeltaIsAppliedDirectly() throws Exception {
+        // given
+        SodaDTO expectedSodaDTO = SodaDTOBuilder.builder().build().toSodaDTO();
+        Long id = expectedSodaDTO.getId();
+        stockCoalescer.stop();
+
+        // when
+        when(sodaService.decrement(id, 5)).thenReturn(expectedSodaDTO);
+
+        // then
+        assertThat(stockCoalescer.decrement(id, 5), is(equalTo(expectedSodaDTO)));
+        verify(sodaService, never()).applyCoalescedDeltas(anyList());
+    }
+}
@@ -0,0 +1,96 @@
+package com.juliobalbino.estoquerefrigerante.service;
+
+import com.juliobalbino.estoquerefrigerante.entity.StockMovement;
+import com.juliobalbino.estoquerefrigerante.enums.StockMovementReason;
+import com.juliobalbino.estoquerefrigerante.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockLedgerTest {
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockLedger stockLedger;
+
+    @BeforeEach
+    void setUp() {
+        stockLedger = new StockLedger(stockMovementRepository, new TransactionTemplate(transactionManager),
+                Duration.ofDays(30), Duration.ofHours(1), Duration.ofMillis(200), 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenMovementIsRecordedThenItIsOnlyInsertedByTheAppender() {
+        // when
+        stockLedger.record(1L, 5, 15, StockMovementReason.INCREMENT);
+
+        // then
+        verifyNoInteractions(stockMovementRepository);
+        assertThat(stockLedger.append(), is(equalTo(1)));
+        assertThat(savedMovements(), contains(hasProperty("delta", is(5))));
+    }
+
+    @Test
+    void whenMovementIsRecordedInACommittedTransactionThenItIsQueuedAfterTheCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        stockLedger.record(1L, -2, 8, StockMovementReason.DECREMENT);
+
+        // then
+        assertThat(stockLedger.append(), is(equalTo(0)));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(stockLedger.append(), is(equalTo(1)));
+        assertThat(savedMovements(), contains(hasProperty("reason", is(StockMovementReason.DECREMENT))));
+    }
+
+    @Test
+    void whenTheTransactionRollsBackThenTheMovementIsDropped() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        stockLedger.record(1L, -2, 8, StockMovementReason.DECREMENT);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertThat(stockLedger.append(), is(equalTo(0)));
+        verifyNoInteractions(stockMovementRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StockMovement> savedMovements() {
+        ArgumentCaptor<List<StockMovement>> savedMovements = ArgumentCaptor.forClass(List.class);
+        verify(stockMovementRepository).saveAll(savedMovements.capture());
+        return savedMovements.getValue();
+    }
+}
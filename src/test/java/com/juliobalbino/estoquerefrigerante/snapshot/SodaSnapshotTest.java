@@ -0,0 +1,87 @@
+package com.juliobalbino.estoquerefrigerante.snapshot;
+
+import com.juliobalbino.estoquerefrigerante.dto.SodaDTO;
+import com.juliobalbino.estoquerefrigerante.entity.Soda;
+import com.juliobalbino.estoquerefrigerante.enums.SodaType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SodaSnapshotTest {
+
+    private static final List<Soda> SODAS = Arrays.asList(
+            new Soda(1L, "Guaraná Antarctica", "Antarctica", 50, 10, SodaType.GUARANA, 3L),
+            new Soda(2L, "Coca-Cola", "Coca-Cola", 50, 20, SodaType.COCA, 1L),
+            new Soda(5L, "Coca-Cola Zero", "Coca-Cola", 40, 0, SodaType.COCA, 0L));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenSnapshotIsWrittenThenItsFingerprintSummarizesTheCatalog() throws IOException {
+        // when
+        CatalogFingerprint fingerprint = SodaSnapshot.write(directory.resolve("soda.snapshot"), SODAS.iterator());
+
+        // then
+        assertThat(fingerprint, is(equalTo(new CatalogFingerprint(3L, 4L, 5L))));
+    }
+
+    @Test
+    void whenSnapshotIsOpenedThenSodasAreFoundByName() throws IOException {
+        // given
+        Path path = directory.resolve("soda.snapshot");
+        CatalogFingerprint fingerprint = SodaSnapshot.write(path, SODAS.iterator());
+
+        // when
+        try (SodaSnapshot snapshot = SodaSnapshot.open(path)) {
+            SodaDTO foundSoda = snapshot.findByName("Guaraná Antarctica");
+
+            // then
+            assertThat(snapshot.getFingerprint(), is(equalTo(fingerprint)));
+            assertThat(snapshot.size(), is(equalTo(3)));
+            assertThat(foundSoda, is(equalTo(new SodaDTO(1L, "Guaraná Antarctica", "Antarctica", 50, 10, SodaType.GUARANA))));
+            assertThat(snapshot.findByName("Coca-Cola Zero").getQuantity(), is(equalTo(0)));
+            assertThat(snapshot.findByName("Fanta"), is(nullValue()));
+        }
+    }
+
+    @Test
+    void whenSnapshotIsIteratedThenSodasComeInIdOrder() throws IOException {
+        // given
+        Path path = directory.resolve("soda.snapshot");
+        SodaSnapshot.write(path, SODAS.iterator());
+        List<Long> ids = new ArrayList<>();
+
+        // when
+        try (SodaSnapshot snapshot = SodaSnapshot.open(path)) {
+            snapshot.forEach(soda -> ids.add(soda.getId()));
+        }
+
+        // then
+        assertThat(ids, contains(1L, 2L, 5L));
+    }
+
+    @Test
+    void whenSnapshotIsRewrittenThenTheNewCatalogReplacesTheOldOne() throws IOException {
+        // given
+        Path path = directory.resolve("soda.snapshot");
+        SodaSnapshot.write(path, SODAS.iterator());
+
+        // when
+        SodaSnapshot.write(path, SODAS.subList(0, 1).iterator());
+
+        // then
+        try (SodaSnapshot snapshot = SodaSnapshot.open(path)) {
+            assertThat(snapshot.size(), is(equalTo(1)));
+            assertThat(snapshot.findByName("Coca-Cola"), is(nullValue()));
+        }
+    }
+}